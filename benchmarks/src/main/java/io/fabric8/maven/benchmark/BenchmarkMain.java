@@ -0,0 +1,25 @@
+package io.fabric8.maven.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Runs the benchmarks with the JMH command line, enabling the GC profiler unless another profiler is requested so that
+ * allocation rates are always reported.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+        throw new IllegalAccessError("Utility class");
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] jmhArgs = args;
+        if (!Arrays.asList(args).contains("-prof")) {
+            jmhArgs = new String[args.length + 2];
+            jmhArgs[0] = "-prof";
+            jmhArgs[1] = "gc";
+            System.arraycopy(args, 0, jmhArgs, 2, args.length);
+        }
+        org.openjdk.jmh.Main.main(jmhArgs);
+    }
+}
@@ -0,0 +1,51 @@
+package io.fabric8.maven.benchmark;
+
+/**
+ * The POM documents the benchmarks run against
+ */
+public enum Fixture {
+
+    /**
+     * A typical single-module project
+     */
+    SMALL {
+        @Override
+        String load() {
+            return Poms.resource("small-pom.xml");
+        }
+    },
+
+    /**
+     * The POM exercising every section of the model, shared with the library tests
+     */
+    FULL {
+        @Override
+        String load() {
+            return Poms.resource("full-pom.xml");
+        }
+    },
+
+    /**
+     * A generated BOM with thousands of managed dependencies and version properties
+     */
+    BOM {
+        @Override
+        String load() {
+            return Poms.bom(5_000, 5_000);
+        }
+    };
+
+    private String content;
+
+    abstract String load();
+
+    /**
+     * @return the contents of this fixture
+     */
+    public synchronized String content() {
+        if (content == null) {
+            content = load();
+        }
+        return content;
+    }
+}
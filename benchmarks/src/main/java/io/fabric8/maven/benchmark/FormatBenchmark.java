@@ -0,0 +1,56 @@
+package io.fabric8.maven.benchmark;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.fabric8.maven.XMLFormat;
+
+/**
+ * Benchmarks the {@link XMLFormat#format} entry points
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormatBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean lineBreaks;
+
+    private XMLFormat format;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        format = XMLFormat.builder().indent("    ")
+                .insertLineBreakBetweenMajorSections(lineBreaks)
+                .build();
+    }
+
+    @Benchmark
+    public String formatToString(PomState state) {
+        return format.format(new StringReader(state.content));
+    }
+
+    @Benchmark
+    public StringWriter formatToWriter(PomState state) {
+        StringWriter sw = new StringWriter();
+        format.format(new StringReader(state.content), sw);
+        return sw;
+    }
+}
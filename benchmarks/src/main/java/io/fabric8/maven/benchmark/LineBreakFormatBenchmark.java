@@ -0,0 +1,52 @@
+package io.fabric8.maven.benchmark;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.fabric8.maven.XMLFormat;
+
+/**
+ * Benchmarks {@link XMLFormat.Builder#insertLineBreakBetweenMajorSections()} on an increasing number of siblings.
+ * <p>
+ * The time per operation should grow linearly with the number of dependencies.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LineBreakFormatBenchmark {
+
+    private static final XMLFormat FORMAT = XMLFormat.builder().indent("    ")
+            .insertLineBreakBetweenMajorSections()
+            .build();
+
+    @Param({ "1000", "5000", "25000" })
+    public int dependencies;
+
+    private String content;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        content = Poms.bom(dependencies, 0);
+    }
+
+    @Benchmark
+    public String format() {
+        return FORMAT.format(new StringReader(content));
+    }
+}
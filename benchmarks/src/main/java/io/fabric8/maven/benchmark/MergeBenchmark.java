@@ -0,0 +1,134 @@
+package io.fabric8.maven.benchmark;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.fabric8.maven.Maven;
+import io.fabric8.maven.merge.SmartModelMerger;
+
+/**
+ * Benchmarks {@link SmartModelMerger#merge(Model, Model, boolean, java.util.Map)}.
+ * <p>
+ * Merging mutates the target, so every invocation merges into a fresh clone. {@link #cloneBaseline(PomState)} measures
+ * the cost of that clone alone.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MergeBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SmallTarget {
+        Model model;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            model = Maven.readModel(new StringReader(Fixture.SMALL.content()));
+        }
+    }
+
+    /**
+     * Fragments composed into a single POM, each with its own properties, dependencies, modules and a shared profile
+     */
+    @State(Scope.Benchmark)
+    public static class Fragments {
+        @Param({ "16" })
+        public int count;
+
+        List<Model> models;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            models = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Model model = new Model();
+                Profile profile = new Profile();
+                profile.setId("native");
+                for (int j = 0; j < 200; j++) {
+                    model.addProperty("fragment-" + i + ".property-" + j, String.valueOf(j));
+                    profile.addProperty("fragment-" + i + ".native-" + j, String.valueOf(j));
+                }
+                for (int j = 0; j < 100; j++) {
+                    Dependency dependency = new Dependency();
+                    dependency.setGroupId("org.acme.fragment" + i);
+                    dependency.setArtifactId("acme-artifact-" + j);
+                    dependency.setVersion("1.0." + j);
+                    model.addDependency(dependency);
+                }
+                model.addModule("module-" + i);
+                model.addModule("module-" + (i + 1));
+                model.addProfile(profile);
+                models.add(model);
+            }
+        }
+    }
+
+    private final SmartModelMerger merger = new SmartModelMerger();
+
+    @Benchmark
+    public Model cloneBaseline(PomState state) {
+        return state.model.clone();
+    }
+
+    @Benchmark
+    public Model mergeIntoSelf(PomState state) {
+        Model target = state.model.clone();
+        merger.merge(target, state.model, false, null);
+        return target;
+    }
+
+    @Benchmark
+    public Model mergeIntoSelfSourceDominant(PomState state) {
+        Model target = state.model.clone();
+        merger.merge(target, state.model, true, null);
+        return target;
+    }
+
+    @Benchmark
+    public Model mergeIntoSmall(PomState state, SmallTarget small) {
+        Model target = small.model.clone();
+        merger.merge(target, state.model, false, null);
+        return target;
+    }
+
+    @Benchmark
+    public Model mergeFragmentsOneByOne(SmallTarget small, Fragments fragments) {
+        Model target = small.model.clone();
+        for (Model fragment : fragments.models) {
+            merger.merge(target, fragment.clone(), false, null);
+        }
+        return target;
+    }
+
+    @Benchmark
+    public Model mergeFragmentsAtOnce(SmallTarget small, Fragments fragments) {
+        Model target = small.model.clone();
+        List<Model> sources = new ArrayList<>(fragments.models.size());
+        for (Model fragment : fragments.models) {
+            sources.add(fragment.clone());
+        }
+        merger.merge(target, sources, false, null);
+        return target;
+    }
+}
@@ -0,0 +1,55 @@
+package io.fabric8.maven.benchmark;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.fabric8.maven.Maven;
+import io.fabric8.maven.ReadOptions;
+
+/**
+ * Benchmarks the {@link ReadOptions.Parser}s against each other, with and without tracking the input locations
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+    @Param({ "XPP3", "STAX" })
+    public ReadOptions.Parser parser;
+
+    @Param({ "true", "false" })
+    public boolean trackLocations;
+
+    private ReadOptions options;
+
+    @Setup
+    public void setUp() {
+        options = ReadOptions.builder().parser(parser).trackLocations(trackLocations).build();
+    }
+
+    @Benchmark
+    public Model readReader(PomState state) {
+        return Maven.readModel(new StringReader(state.content), options);
+    }
+
+    @Benchmark
+    public Model readPath(PomState state) {
+        return Maven.readModel(state.pom, options);
+    }
+}
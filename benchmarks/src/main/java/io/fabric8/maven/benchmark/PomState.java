@@ -0,0 +1,52 @@
+package io.fabric8.maven.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.maven.model.Model;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import io.fabric8.maven.Maven;
+
+/**
+ * A {@link Fixture} written to disk along with its parsed {@link Model}
+ */
+@State(Scope.Benchmark)
+public class PomState {
+
+    @Param({ "SMALL", "FULL", "BOM" })
+    public Fixture fixture;
+
+    public String content;
+
+    public byte[] bytes;
+
+    public Path pom;
+
+    public Model model;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        content = fixture.content();
+        bytes = content.getBytes(StandardCharsets.UTF_8);
+        directory = Files.createTempDirectory("mmh-bench");
+        pom = directory.resolve("pom.xml");
+        Files.write(pom, bytes);
+        model = Maven.readModel(pom);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(pom);
+        Files.deleteIfExists(directory);
+    }
+}
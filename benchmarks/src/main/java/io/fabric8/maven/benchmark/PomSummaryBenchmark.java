@@ -0,0 +1,43 @@
+package io.fabric8.maven.benchmark;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.fabric8.maven.Maven;
+import io.fabric8.maven.PomSummary;
+
+/**
+ * Benchmarks reading a {@link PomSummary} against reading the whole {@link Model}
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PomSummaryBenchmark {
+
+    @Benchmark
+    public Model readModel(PomState state) {
+        return Maven.readModel(state.pom);
+    }
+
+    @Benchmark
+    public PomSummary readSummary(PomState state) {
+        return PomSummary.read(state.pom);
+    }
+
+    @Benchmark
+    public PomSummary readCoordinates(PomState state) {
+        return PomSummary.read(state.pom, EnumSet.of(PomSummary.Field.GROUP_ID, PomSummary.Field.ARTIFACT_ID,
+                PomSummary.Field.VERSION));
+    }
+}
@@ -0,0 +1,96 @@
+package io.fabric8.maven.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sources of the POM documents used by the benchmarks
+ */
+public final class Poms {
+
+    private Poms() {
+        throw new IllegalAccessError("Utility class");
+    }
+
+    /**
+     * Load a POM bundled with the benchmarks
+     *
+     * @param name the resource name, relative to this package
+     * @return the contents of the POM
+     */
+    public static String resource(String name) {
+        try (InputStream is = Poms.class.getResourceAsStream(name)) {
+            if (is == null) {
+                throw new IllegalArgumentException("Resource not found: " + name);
+            }
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + name, e);
+        }
+    }
+
+    /**
+     * Generate a BOM-like POM
+     *
+     * @param dependencies the number of managed dependencies
+     * @param properties the number of version properties
+     * @return the contents of the POM
+     */
+    public static String bom(int dependencies, int properties) {
+        StringBuilder sb = new StringBuilder(256 * (dependencies + properties));
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\"")
+                .append(" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n")
+                .append("         xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0")
+                .append(" https://maven.apache.org/xsd/maven-4.0.0.xsd\">\n")
+                .append("    <modelVersion>4.0.0</modelVersion>\n")
+                .append("    <groupId>org.acme</groupId>\n")
+                .append("    <artifactId>acme-bom</artifactId>\n")
+                .append("    <version>1.0.0-SNAPSHOT</version>\n")
+                .append("    <packaging>pom</packaging>\n")
+                .append("    <name>ACME BOM</name>\n\n");
+        if (properties > 0) {
+            sb.append("    <properties>\n");
+            for (int i = 0; i < properties; i++) {
+                sb.append("        <").append(propertyName(i)).append('>')
+                        .append("1.").append(i % 100).append('.').append(i)
+                        .append("</").append(propertyName(i)).append(">\n");
+            }
+            sb.append("    </properties>\n\n");
+        }
+        if (dependencies > 0) {
+            sb.append("    <dependencyManagement>\n")
+                    .append("        <dependencies>\n");
+            for (int i = 0; i < dependencies; i++) {
+                sb.append("            <dependency>\n")
+                        .append("                <groupId>org.acme.group").append(i % 50).append("</groupId>\n")
+                        .append("                <artifactId>acme-artifact-").append(i).append("</artifactId>\n")
+                        .append("                <version>${").append(propertyName(properties > 0 ? i % properties : i))
+                        .append("}</version>\n");
+                if (i % 10 == 0) {
+                    sb.append("                <exclusions>\n")
+                            .append("                    <exclusion>\n")
+                            .append("                        <groupId>commons-logging</groupId>\n")
+                            .append("                        <artifactId>commons-logging</artifactId>\n")
+                            .append("                    </exclusion>\n")
+                            .append("                </exclusions>\n");
+                }
+                sb.append("            </dependency>\n");
+            }
+            sb.append("        </dependencies>\n")
+                    .append("    </dependencyManagement>\n");
+        }
+        sb.append("</project>\n");
+        return sb.toString();
+    }
+
+    /**
+     * @param index the property index
+     * @return the name of the version property generated at the given index
+     */
+    public static String propertyName(int index) {
+        return "acme-artifact-" + index + ".version";
+    }
+}
@@ -0,0 +1,75 @@
+package io.fabric8.maven.benchmark;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.fabric8.maven.Maven;
+
+/**
+ * Benchmarks how updating the properties of an existing POM scales with their number: a tenth of the properties are
+ * changed, a tenth are removed and as many new ones are added
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertiesBenchmark {
+
+    @Param({ "1000", "10000", "50000" })
+    public int properties;
+
+    private Path directory;
+
+    private Path pom;
+
+    private Model model;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("mmh-bench");
+        pom = directory.resolve("pom.xml");
+        Files.write(pom, Poms.bom(0, properties).getBytes(StandardCharsets.UTF_8));
+        model = Maven.readModel(pom);
+        Properties props = model.getProperties();
+        for (int i = 0; i < properties; i += 10) {
+            props.setProperty(Poms.propertyName(i), "2.0." + i);
+            props.remove(Poms.propertyName(i + 1));
+            props.setProperty(Poms.propertyName(properties + i), "1.0." + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(pom);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public StringWriter updateProperties() {
+        StringWriter sw = new StringWriter();
+        Maven.writeModel(model, pom, () -> sw);
+        return sw;
+    }
+}
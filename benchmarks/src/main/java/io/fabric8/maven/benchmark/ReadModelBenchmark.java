@@ -0,0 +1,69 @@
+package io.fabric8.maven.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.fabric8.maven.Maven;
+import io.fabric8.maven.ModelCache;
+
+/**
+ * Benchmarks the {@link Maven#readModel} entry points
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadModelBenchmark {
+
+    private static final ModelCache CACHE = new ModelCache(16);
+
+    @Benchmark
+    public Model readPath(PomState state) {
+        return Maven.readModel(state.pom);
+    }
+
+    /**
+     * Reads an unchanged file, so everything but the first call is served from the cache
+     */
+    @Benchmark
+    public Model readPathCached(PomState state) {
+        return CACHE.readModel(state.pom);
+    }
+
+    @Benchmark
+    public Model readReader(PomState state) {
+        return Maven.readModel(new StringReader(state.content));
+    }
+
+    @Benchmark
+    public Model readInputStream(PomState state) {
+        return Maven.readModel(new ByteArrayInputStream(state.bytes));
+    }
+
+    @Benchmark
+    public Model readBytes(PomState state) {
+        return Maven.readModel(state.bytes);
+    }
+
+    @Benchmark
+    public Model readByteBuffer(PomState state) {
+        return Maven.readModel(ByteBuffer.wrap(state.bytes));
+    }
+
+    @Benchmark
+    public Model readPathMapped(PomState state) {
+        return Maven.readModelMapped(state.pom);
+    }
+}
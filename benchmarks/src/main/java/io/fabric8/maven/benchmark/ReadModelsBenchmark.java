@@ -0,0 +1,78 @@
+package io.fabric8.maven.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.fabric8.maven.Maven;
+import io.fabric8.maven.ModelReadResult;
+
+/**
+ * Benchmarks reading the POM files of a reactor one at a time against {@link Maven#readModels}
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadModelsBenchmark {
+
+    @Param({ "1000" })
+    public int modules;
+
+    private Path directory;
+
+    private List<Path> poms;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        byte[] bytes = Fixture.FULL.content().getBytes(StandardCharsets.UTF_8);
+        directory = Files.createTempDirectory("mmh-bench");
+        poms = new ArrayList<>(modules);
+        for (int i = 0; i < modules; i++) {
+            poms.add(Files.write(directory.resolve("pom-" + i + ".xml"), bytes));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (Path pom : poms) {
+            Files.deleteIfExists(pom);
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public List<Model> readModelSequentially() {
+        List<Model> models = new ArrayList<>(poms.size());
+        for (Path pom : poms) {
+            models.add(Maven.readModel(pom));
+        }
+        return models;
+    }
+
+    @Benchmark
+    public List<ModelReadResult> readModels() {
+        return Maven.readModels(poms);
+    }
+}
@@ -0,0 +1,45 @@
+package io.fabric8.maven.benchmark;
+
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.fabric8.maven.Maven;
+import io.fabric8.maven.PomDocument;
+
+/**
+ * Benchmarks a complete read-modify-write cycle of a POM file, output going to memory
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadWriteCycleBenchmark {
+
+    @Benchmark
+    public StringWriter readModelAndWriteModel(PomState state) {
+        Model model = Maven.readModel(state.pom);
+        model.setVersion("2.0.0");
+        StringWriter sw = new StringWriter();
+        Maven.writeModel(model, sw);
+        return sw;
+    }
+
+    @Benchmark
+    public StringWriter pomDocument(PomState state) {
+        PomDocument document = PomDocument.read(state.pom);
+        document.getModel().setVersion("2.0.0");
+        StringWriter sw = new StringWriter();
+        document.write(sw);
+        return sw;
+    }
+}
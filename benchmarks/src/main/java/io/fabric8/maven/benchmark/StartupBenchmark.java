@@ -0,0 +1,102 @@
+package io.fabric8.maven.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the startup of the command line: each invocation launches {@code java -jar} on the uber jar to update
+ * the GAV of a POM, and waits for the process to exit, with and without the class data sharing archive.
+ * <p>
+ * Build them first with {@code mvn package -Pcds} in the parent project. The jar and the archive default to the ones
+ * in {@code ../target} and can be set with the {@code mmh.cli.jar} and {@code mmh.cds.archive} system properties.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean cds;
+
+    private Path directory;
+
+    private Path pom;
+
+    private List<String> command;
+
+    private int version;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String cliJar = System.getProperty("mmh.cli.jar");
+        Path jar = cliJar != null ? Paths.get(cliJar) : findUberJar();
+        Path archive = Paths.get(System.getProperty("mmh.cds.archive", "../target/cds/maven-model-helper.jsa"));
+        if (cds && !Files.isRegularFile(archive)) {
+            throw new IllegalStateException("Could not find the class data sharing archive " + archive.toAbsolutePath()
+                    + ", build it with mvn package -Pcds");
+        }
+        directory = Files.createTempDirectory("mmh-bench");
+        pom = directory.resolve("pom.xml");
+        Files.write(pom, Poms.bom(10, 10).getBytes(StandardCharsets.UTF_8));
+        command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add(cds ? "-XX:SharedArchiveFile=" + archive : "-Xshare:auto");
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("update-gav");
+        command.add(pom.toString());
+        command.add("org.acme");
+        command.add("startup");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(pom);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public int updateGav() throws IOException, InterruptedException {
+        List<String> args = new ArrayList<>(command);
+        args.add("1.0." + version++);
+        Process process = new ProcessBuilder(args).inheritIO().start();
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Command failed with exit code " + exitCode + ": " + args);
+        }
+        return exitCode;
+    }
+
+    private static Path findUberJar() throws IOException {
+        try (DirectoryStream<Path> jars = Files.newDirectoryStream(Paths.get("../target"), "maven-model-helper-*-uber.jar")) {
+            for (Path jar : jars) {
+                return jar;
+            }
+        }
+        throw new IllegalStateException("Could not find the uber jar in ../target, build it with mvn package");
+    }
+}
@@ -0,0 +1,95 @@
+package io.fabric8.maven.benchmark;
+
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.fabric8.maven.Maven;
+import io.fabric8.maven.XMLFormat;
+
+/**
+ * Benchmarks the {@link Maven#writeModel} entry points.
+ * <p>
+ * The output goes to memory so that the numbers are not dominated by the file system, but updating an existing POM
+ * still reads it from disk, as it does in production.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteModelBenchmark {
+
+    private static final XMLFormat FORMAT = XMLFormat.builder().indent("    ")
+            .insertLineBreakBetweenMajorSections()
+            .build();
+
+    private static final XMLFormat SPLICE = XMLFormat.builder().textMode(XMLFormat.TextMode.PRESERVE)
+            .spliceUnchangedContent()
+            .build();
+
+    @Benchmark
+    public StringWriter updateExisting(PomState state) {
+        StringWriter sw = new StringWriter();
+        Maven.writeModel(state.model, state.pom, () -> sw);
+        return sw;
+    }
+
+    @Benchmark
+    public StringWriter updateExistingFormatted(PomState state) {
+        StringWriter sw = new StringWriter();
+        Maven.writeModel(state.model, state.pom, () -> sw, FORMAT);
+        return sw;
+    }
+
+    @Benchmark
+    public StringWriter updateExistingSpliced(PomState state) {
+        StringWriter sw = new StringWriter();
+        Maven.writeModel(state.model, state.pom, () -> sw, SPLICE);
+        return sw;
+    }
+
+    /**
+     * The bytes of an updated POM file as they had to be obtained before the byte targets: through a String
+     */
+    @Benchmark
+    public byte[] updateExistingToBytesThroughString(PomState state) {
+        StringWriter sw = new StringWriter();
+        Maven.writeModel(state.model, state.pom, () -> sw);
+        return sw.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] updateExistingToBytes(PomState state) {
+        return Maven.writeModelToBytes(state.model, state.pom, null);
+    }
+
+    @Benchmark
+    public ByteBuffer updateExistingToByteBuffer(PomState state) {
+        return Maven.writeModelToByteBuffer(state.model, state.pom, null);
+    }
+
+    @Benchmark
+    public StringWriter createNew(PomState state) {
+        StringWriter sw = new StringWriter();
+        Maven.writeModel(state.model, (Path) null, () -> sw);
+        return sw;
+    }
+
+    @Benchmark
+    public StringWriter createNewFormatted(PomState state) {
+        StringWriter sw = new StringWriter();
+        Maven.writeModel(state.model, (Path) null, () -> sw, FORMAT);
+        return sw;
+    }
+}
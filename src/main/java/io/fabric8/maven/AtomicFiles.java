@@ -0,0 +1,152 @@
+package io.fabric8.maven;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Replaces files through a temporary file in the same directory and an atomic move, so that readers and crashes only
+ * ever see the old or the new contents.
+ */
+final class AtomicFiles {
+
+    private AtomicFiles() {
+        throw new IllegalAccessError("Utility class");
+    }
+
+    /**
+     * Replace the contents of the file as configured by the options
+     *
+     * @param pom the path to the POM file
+     * @param contents the new contents
+     * @param options how to write the file
+     */
+    static void write(Path pom, byte[] contents, WriteOptions options) {
+        if (!options.isAtomic()) {
+            try (FileChannel channel = FileChannel.open(pom, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(channel, contents);
+                if (options.isSync()) {
+                    channel.force(true);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write POM file: " + pom, e);
+            }
+            return;
+        }
+        Path target = target(pom);
+        Path temp = writeTemporary(target, contents, options.isSync());
+        move(temp, target);
+        if (options.isSync()) {
+            syncDirectory(target.getParent());
+        }
+    }
+
+    /**
+     * @param pom the path to the POM file
+     * @return the file actually replaced: the POM file itself, or the file it links to
+     */
+    static Path target(Path pom) {
+        pom = pom.toAbsolutePath();
+        if (Files.isSymbolicLink(pom)) {
+            try {
+                // Replace the linked file, not the link
+                return pom.toRealPath();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not resolve POM file: " + pom, e);
+            }
+        }
+        return pom;
+    }
+
+    /**
+     * Write the contents to a new hidden file next to the target, with the same permissions
+     *
+     * @param target the file to be replaced
+     * @param contents the new contents
+     * @param sync true to force the contents to the storage device
+     * @return the temporary file
+     */
+    static Path writeTemporary(Path target, byte[] contents, boolean sync) {
+        Path temp = target.resolveSibling("." + target.getFileName() + "."
+                + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                if (Files.exists(target) && Files.getFileStore(temp).supportsFileAttributeView("posix")) {
+                    Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+                }
+                writeFully(channel, contents);
+                if (sync) {
+                    channel.force(true);
+                }
+            }
+            return temp;
+        } catch (IOException e) {
+            delete(temp);
+            throw new UncheckedIOException("Could not write POM file: " + target, e);
+        }
+    }
+
+    /**
+     * Force the contents of a file written without sync to the storage device
+     *
+     * @param file the file
+     */
+    static void sync(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not sync file: " + file, e);
+        }
+    }
+
+    /**
+     * Replace the target by the temporary file in a single step
+     *
+     * @param temp the temporary file, deleted if it can't be moved
+     * @param target the file to replace
+     */
+    static void move(Path temp, Path target) {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            delete(temp);
+            throw new UncheckedIOException("Could not replace POM file: " + target, e);
+        }
+    }
+
+    /**
+     * Force the entries of a directory, such as the files moved into it, to the storage device
+     *
+     * @param directory the directory
+     */
+    static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Some platforms, such as Windows, can't open or sync directories
+        }
+    }
+
+    static void delete(Path temp) {
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            // Best effort, the temporary file is hidden
+        }
+    }
+
+    private static void writeFully(FileChannel channel, byte[] contents) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(contents);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
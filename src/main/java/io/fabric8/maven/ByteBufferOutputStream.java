@@ -0,0 +1,24 @@
+package io.fabric8.maven;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link ByteArrayOutputStream} whose written bytes can be wrapped in a {@link ByteBuffer} without copying them
+ */
+final class ByteBufferOutputStream extends ByteArrayOutputStream {
+
+    /**
+     * @param size the initial capacity, such as the size of the POM file being updated
+     */
+    ByteBufferOutputStream(int size) {
+        super(Math.max(size, 32));
+    }
+
+    /**
+     * @return a buffer over the written bytes, sharing the array of this stream
+     */
+    ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buf, 0, count);
+    }
+}
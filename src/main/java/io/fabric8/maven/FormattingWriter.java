@@ -0,0 +1,561 @@
+package io.fabric8.maven;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jdom2.Namespace;
+import org.jdom2.Verifier;
+import org.jdom2.output.EscapeStrategy;
+import org.jdom2.output.Format;
+
+/**
+ * Formats the XML written to it by a {@link org.apache.maven.model.io.xpp3.MavenXpp3Writer} while it is written, into
+ * the same output as {@link XMLFormat#format(java.io.Reader, Writer)} gives for the whole serialized model, without
+ * building a document.
+ * <p>
+ * Only the XML written by the serializer is understood: a declaration, elements, attributes, text and references.
+ * Text is handled like JDOM2 does for the text mode of the format, and with {@code xml:space} attributes. Call
+ * {@link #finish()} once the model is written.
+ */
+final class FormattingWriter extends Writer {
+
+    private static final int PROLOG = 0;
+
+    private static final int TEXT = 1;
+
+    private static final int TAG = 2;
+
+    private static final int EPILOG = 3;
+
+    private final Writer out;
+
+    private final Format.TextMode textMode;
+
+    private final String indent;
+
+    private final String lineSeparator;
+
+    private final EscapeStrategy escapeStrategy;
+
+    private final boolean insertLineBreakBetweenMajorSections;
+
+    /**
+     * The line separator and indentation of each level, computed once
+     */
+    private final List<String> pads = new ArrayList<>();
+
+    /**
+     * The elements being written, the root element first
+     */
+    private final List<Frame> elements = new ArrayList<>();
+
+    /**
+     * The declared namespaces in scope, as prefix and URI pairs
+     */
+    private final List<String> namespaces = new ArrayList<>();
+
+    /**
+     * The current tag or text as written by the serializer
+     */
+    private final StringBuilder raw = new StringBuilder();
+
+    private int state = PROLOG;
+
+    private char quote;
+
+    /**
+     * The text between the previous tag and the current one
+     */
+    private String text;
+
+    /**
+     * The output held until it is known whether a line break goes before it
+     */
+    private StringBuilder held;
+
+    private boolean rootHasChildren;
+
+    /**
+     * @param out the writer to write the formatted XML to, neither flushed nor closed
+     * @param format the format, which must be {@link #supports(XMLFormat) supported}
+     */
+    FormattingWriter(Writer out, XMLFormat format) {
+        Format outputFormat = format.getOutputFormat();
+        this.out = out;
+        this.textMode = outputFormat.getTextMode();
+        this.indent = outputFormat.getIndent();
+        this.lineSeparator = outputFormat.getLineSeparator();
+        this.escapeStrategy = outputFormat.getEscapeStrategy();
+        this.insertLineBreakBetweenMajorSections = format.isInsertLineBreakBetweenMajorSections();
+        namespaces.add("");
+        namespaces.add("");
+        namespaces.add(Namespace.XML_NAMESPACE.getPrefix());
+        namespaces.add(Namespace.XML_NAMESPACE.getURI());
+    }
+
+    /**
+     * @param format the format
+     * @return true if the format indents and separates lines, which this writer relies on
+     */
+    static boolean supports(XMLFormat format) {
+        Format outputFormat = format.getOutputFormat();
+        return outputFormat.getIndent() != null && outputFormat.getLineSeparator() != null;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        accept((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            accept(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            accept(str.charAt(i));
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Check that the whole document was written
+     */
+    void finish() {
+        if (state != EPILOG) {
+            throw new RuntimeException("Could not format XML: the document is incomplete");
+        }
+    }
+
+    private void accept(char c) throws IOException {
+        switch (state) {
+            case PROLOG:
+            case TEXT:
+                if (c == '<') {
+                    if (state == TEXT) {
+                        text = decode(raw, false);
+                        raw.setLength(0);
+                    }
+                    state = TAG;
+                    raw.append(c);
+                } else if (state == TEXT) {
+                    raw.append(c);
+                }
+                break;
+            case TAG:
+                raw.append(c);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '>') {
+                    tag();
+                }
+                break;
+            default:
+                // Nothing is written after the root element
+        }
+    }
+
+    private void tag() throws IOException {
+        int length = raw.length();
+        char first = raw.charAt(1);
+        if (first == '?' && elements.isEmpty() && raw.charAt(length - 2) == '?') {
+            // The declaration is always written by the format
+            raw.setLength(0);
+            state = PROLOG;
+            return;
+        }
+        if (first == '?' || first == '!') {
+            throw new RuntimeException("Could not format XML: unsupported markup " + raw);
+        }
+        if (first == '/') {
+            endElement(raw.substring(2, length - 1).trim());
+        } else {
+            startElement(length);
+        }
+        raw.setLength(0);
+        text = null;
+        state = elements.isEmpty() ? EPILOG : TEXT;
+    }
+
+    private void startElement(int length) throws IOException {
+        boolean empty = raw.charAt(length - 2) == '/';
+        int end = empty ? length - 2 : length - 1;
+        int i = 1;
+        while (i < end && !isWhitespace(raw.charAt(i))) {
+            i++;
+        }
+        String name = raw.substring(1, i);
+        List<String> attributes = new ArrayList<>();
+        List<String> declarations = null;
+        String space = null;
+        while (true) {
+            while (i < end && isWhitespace(raw.charAt(i))) {
+                i++;
+            }
+            if (i >= end) {
+                break;
+            }
+            int equals = raw.indexOf("=", i);
+            String attribute = raw.substring(i, equals).trim();
+            i = equals + 1;
+            while (isWhitespace(raw.charAt(i))) {
+                i++;
+            }
+            char delimiter = raw.charAt(i);
+            int close = raw.indexOf(String.valueOf(delimiter), i + 1);
+            String value = decode(raw.subSequence(i + 1, close), true);
+            i = close + 1;
+            if (attribute.equals("xmlns") || attribute.startsWith("xmlns:")) {
+                if (declarations == null) {
+                    declarations = new ArrayList<>();
+                }
+                declarations.add(attribute.length() == 5 ? "" : attribute.substring(6));
+                declarations.add(value);
+            } else {
+                if (attribute.equals("xml:space")) {
+                    space = value;
+                }
+                attributes.add(attribute);
+                attributes.add(value);
+            }
+        }
+
+        Frame parent = elements.isEmpty() ? null : elements.get(elements.size() - 1);
+        if (parent == null) {
+            print("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+            print(lineSeparator);
+        } else {
+            if (held != null) {
+                // The previous child of the root element is followed by a major section
+                release(true);
+            }
+            if (elements.size() == 1 && insertLineBreakBetweenMajorSections && rootHasChildren) {
+                held = new StringBuilder();
+            }
+            if (parent.open) {
+                print(">");
+                parent.open = false;
+            }
+            writeContent(parent, false);
+            if (elements.size() == 1) {
+                rootHasChildren = true;
+            }
+        }
+
+        int scope = namespaces.size();
+        print("<");
+        print(name);
+        writeNamespaces(name, attributes, declarations);
+        for (int a = 0; a < attributes.size(); a += 2) {
+            print(" ");
+            print(attributes.get(a));
+            print("=\"");
+            print(Format.escapeAttribute(escapeStrategy, attributes.get(a + 1)));
+            print("\"");
+        }
+        if (empty) {
+            print(" />");
+            namespaces.subList(scope, namespaces.size()).clear();
+            if (held != null) {
+                release(false);
+            }
+            if (parent == null) {
+                print(lineSeparator);
+            }
+            return;
+        }
+
+        boolean preserve;
+        if ("preserve".equals(space)) {
+            preserve = true;
+        } else if ("default".equals(space)) {
+            preserve = textMode == Format.TextMode.PRESERVE;
+        } else {
+            preserve = parent == null ? textMode == Format.TextMode.PRESERVE : parent.preserve;
+        }
+        elements.add(new Frame(name, scope, preserve, elements.size() + 1));
+    }
+
+    private void endElement(String name) throws IOException {
+        Frame element = elements.remove(elements.size() - 1);
+        if (!element.name.equals(name)) {
+            throw new RuntimeException("Could not format XML: expected </" + element.name + "> but got </" + name + ">");
+        }
+        if (held != null) {
+            release(false);
+        }
+        if (element.open) {
+            // Only text, written on the same line as the tags
+            String content = element.preserve ? text : process(text);
+            if (content == null || content.isEmpty() || !element.preserve && Verifier.isAllXMLWhitespace(content)) {
+                print(" />");
+            } else {
+                print(">");
+                print(Format.escapeText(escapeStrategy, lineSeparator, content));
+                writeEndTag(name);
+            }
+        } else {
+            writeContent(element, true);
+            writeEndTag(name);
+        }
+        namespaces.subList(element.scope, namespaces.size()).clear();
+        if (elements.isEmpty()) {
+            print(lineSeparator);
+        }
+    }
+
+    /**
+     * Write the text before a child element or the end tag of an element with children
+     */
+    private void writeContent(Frame element, boolean last) throws IOException {
+        if (element.preserve) {
+            if (text != null && !text.isEmpty()) {
+                print(Format.escapeText(escapeStrategy, lineSeparator, text));
+            }
+            return;
+        }
+        if (text != null && !Verifier.isAllXMLWhitespace(text)) {
+            print(pad(element.level));
+            print(Format.escapeText(escapeStrategy, lineSeparator, process(text)));
+        }
+        print(pad(last ? element.level - 1 : element.level));
+    }
+
+    private void writeEndTag(String name) throws IOException {
+        print("</");
+        print(name);
+        print(">");
+    }
+
+    /**
+     * Write the namespaces not in scope yet like JDOM2 does: the one of the element first, then the others by prefix
+     */
+    private void writeNamespaces(String name, List<String> attributes, List<String> declarations)
+            throws IOException {
+        int colon = name.indexOf(':');
+        String prefix = colon < 0 ? "" : name.substring(0, colon);
+        String uri = find(declarations, prefix);
+        if (uri == null) {
+            uri = lookup(prefix);
+        }
+        if (uri == null) {
+            throw new RuntimeException("Could not format XML: undeclared prefix in <" + name + ">");
+        }
+        if (!uri.equals(lookup(prefix))) {
+            writeNamespace(prefix, uri);
+        }
+        if (declarations != null) {
+            List<String> added = new ArrayList<>();
+            for (int d = 0; d < declarations.size(); d += 2) {
+                String declared = declarations.get(d);
+                if (!declared.equals(prefix) && !declarations.get(d + 1).equals(lookup(declared))) {
+                    added.add(declared);
+                }
+            }
+            added.sort(null);
+            for (String declared : added) {
+                writeNamespace(declared, find(declarations, declared));
+            }
+            namespaces.addAll(declarations);
+        }
+        for (int a = 0; a < attributes.size(); a += 2) {
+            String attribute = attributes.get(a);
+            colon = attribute.indexOf(':');
+            if (colon > 0 && lookup(attribute.substring(0, colon)) == null) {
+                throw new RuntimeException("Could not format XML: undeclared prefix in attribute " + attribute);
+            }
+        }
+    }
+
+    private void writeNamespace(String prefix, String uri) throws IOException {
+        print(" xmlns");
+        if (!prefix.isEmpty()) {
+            print(":");
+            print(prefix);
+        }
+        print("=\"");
+        print(Format.escapeAttribute(escapeStrategy, uri));
+        print("\"");
+    }
+
+    private String lookup(String prefix) {
+        for (int n = namespaces.size() - 2; n >= 0; n -= 2) {
+            if (namespaces.get(n).equals(prefix)) {
+                return namespaces.get(n + 1);
+            }
+        }
+        return null;
+    }
+
+    private static String find(List<String> declarations, String prefix) {
+        if (declarations != null) {
+            for (int d = 0; d < declarations.size(); d += 2) {
+                if (declarations.get(d).equals(prefix)) {
+                    return declarations.get(d + 1);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the text as printed in the text mode of the format
+     */
+    private String process(String text) {
+        if (text == null) {
+            return null;
+        }
+        switch (textMode) {
+            case TRIM:
+                return Format.trimBoth(text);
+            case NORMALIZE:
+                return Format.compact(text);
+            default:
+                return text;
+        }
+    }
+
+    /**
+     * @return the line separator followed by the indentation of the level
+     */
+    private String pad(int level) {
+        while (pads.size() <= level) {
+            pads.add(pads.isEmpty() ? lineSeparator : pads.get(pads.size() - 1) + indent);
+        }
+        return pads.get(level);
+    }
+
+    /**
+     * Write the output held since the end of the previous child of the root element
+     *
+     * @param lineBreak true to write a line break before it
+     */
+    private void release(boolean lineBreak) throws IOException {
+        StringBuilder output = held;
+        held = null;
+        if (lineBreak) {
+            out.write(lineSeparator);
+        }
+        out.append(output);
+    }
+
+    private void print(String str) throws IOException {
+        if (held != null) {
+            held.append(str);
+        } else {
+            out.write(str);
+        }
+    }
+
+    /**
+     * Resolve the references and normalize the line ends and, in attribute values, the whitespaces like a parser does
+     */
+    private static String decode(CharSequence raw, boolean attribute) {
+        StringBuilder sb = new StringBuilder(raw.length());
+        int length = raw.length();
+        for (int i = 0; i < length; i++) {
+            char c = raw.charAt(i);
+            if (c == '&') {
+                int semicolon = i + 1;
+                while (raw.charAt(semicolon) != ';') {
+                    semicolon++;
+                }
+                String reference = raw.subSequence(i + 1, semicolon).toString();
+                i = semicolon;
+                if (reference.startsWith("#x")) {
+                    sb.appendCodePoint(Integer.parseInt(reference.substring(2), 16));
+                } else if (reference.startsWith("#")) {
+                    sb.appendCodePoint(Integer.parseInt(reference.substring(1)));
+                } else {
+                    switch (reference) {
+                        case "amp":
+                            sb.append('&');
+                            break;
+                        case "lt":
+                            sb.append('<');
+                            break;
+                        case "gt":
+                            sb.append('>');
+                            break;
+                        case "quot":
+                            sb.append('"');
+                            break;
+                        case "apos":
+                            sb.append('\'');
+                            break;
+                        default:
+                            throw new RuntimeException("Could not format XML: unknown entity &" + reference + ";");
+                    }
+                }
+            } else if (c == '\r') {
+                if (i + 1 < length && raw.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                sb.append(attribute ? ' ' : '\n');
+            } else if (attribute && (c == '\n' || c == '\t')) {
+                sb.append(' ');
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    /**
+     * An element being written
+     */
+    private static final class Frame {
+
+        private final String name;
+
+        /**
+         * The size of the namespace scope before the element
+         */
+        private final int scope;
+
+        /**
+         * True if the content is printed as is
+         */
+        private final boolean preserve;
+
+        /**
+         * The indentation level of the children
+         */
+        private final int level;
+
+        /**
+         * True until the first child element, when the start tag is not closed yet
+         */
+        private boolean open = true;
+
+        private Frame(String name, int scope, boolean preserve, int level) {
+            this.name = name;
+            this.scope = scope;
+            this.preserve = preserve;
+            this.level = level;
+        }
+    }
+}
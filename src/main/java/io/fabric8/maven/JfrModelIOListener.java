@@ -0,0 +1,108 @@
+package io.fabric8.maven;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import jdk.jfr.EventType;
+
+/**
+ * Records the phases as {@link ModelIOEvent}s. It is only notified while a Java Flight Recorder recording enables
+ * them, see {@link ModelIOListeners#of(ModelIOListener)}.
+ */
+final class JfrModelIOListener implements ModelIOListener {
+
+    static final JfrModelIOListener INSTANCE = new JfrModelIOListener();
+
+    /**
+     * Looked up once, so that checking whether the events are recorded is a field read that allocates nothing
+     */
+    private static final EventType EVENT_TYPE = EventType.getEventType(ModelIOEvent.class);
+
+    /**
+     * The events of the phases started by each thread, the innermost first
+     */
+    private final ThreadLocal<Deque<ModelIOEvent>> events = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private JfrModelIOListener() {
+    }
+
+    /**
+     * @return true if a recording enables the events
+     */
+    static boolean isRecording() {
+        return EVENT_TYPE.isEnabled();
+    }
+
+    @Override
+    public void phaseStarted(Phase phase, Path pom) {
+        Deque<ModelIOEvent> started = events.get();
+        // A phase never runs within itself, so the same phase still started failed before it ended
+        remove(started, phase);
+        ModelIOEvent event = new ModelIOEvent();
+        event.phase = phase.name();
+        event.pom = pom != null ? pom.toString() : null;
+        event.begin();
+        started.push(event);
+    }
+
+    @Override
+    public void phaseEnded(Phase phase, Path pom, long nanos) {
+        ModelIOEvent event = remove(events.get(), phase);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public void bytesRead(Path pom, long bytes) {
+        ModelIOEvent event = events.get().peek();
+        if (event != null) {
+            event.bytesRead += bytes;
+        }
+    }
+
+    @Override
+    public void bytesWritten(Path pom, long bytes) {
+        ModelIOEvent event = events.get().peek();
+        if (event != null) {
+            event.bytesWritten += bytes;
+        }
+    }
+
+    @Override
+    public void elementsProcessed(Phase phase, Path pom, int count) {
+        ModelIOEvent event = events.get().peek();
+        if (event != null && event.phase.equals(phase.name())) {
+            event.elements += count;
+        }
+    }
+
+    @Override
+    public void elementsMutated(Phase phase, Path pom, int count) {
+        ModelIOEvent event = events.get().peek();
+        if (event != null && event.phase.equals(phase.name())) {
+            event.mutations += count;
+        }
+    }
+
+    /**
+     * Remove the event of the phase, along with the events of the phases that started within it and failed
+     *
+     * @return the event of the phase, or null if it was not started
+     */
+    private static ModelIOEvent remove(Deque<ModelIOEvent> started, Phase phase) {
+        for (ModelIOEvent event : started) {
+            if (event.phase.equals(phase.name())) {
+                while (started.pop() != event) {
+                    // Discard the failed phases
+                }
+                return event;
+            }
+        }
+        return null;
+    }
+}
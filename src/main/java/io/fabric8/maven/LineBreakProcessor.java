@@ -2,57 +2,112 @@ package io.fabric8.maven;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
+import org.jdom2.Document;
 import org.jdom2.Element;
+import org.jdom2.output.Format;
 import org.jdom2.output.support.AbstractXMLOutputProcessor;
 import org.jdom2.output.support.FormatStack;
 import org.jdom2.util.NamespaceStack;
 
 /**
  * Inserts a line break on every major section
+ * <p>
+ * The state of each output is kept in the {@link Writer} it is done to, so a single instance can be shared.
  */
 class LineBreakProcessor extends AbstractXMLOutputProcessor {
 
-    private String buffer;
+    @Override
+    public void process(Writer out, Format format, Document doc) throws IOException {
+        super.process(new LineBreakWriter(out), format, doc);
+    }
 
     @Override
     protected void printElement(Writer out, FormatStack fstack, NamespaceStack nstack, Element element) throws IOException {
-        Element nextSiblingElement = findNextSiblingElement(element);
-        boolean shouldBreakLine = false;
-        if (nextSiblingElement != null) {
-            shouldBreakLine = shouldBreakLine(nextSiblingElement);
+        if (!(out instanceof LineBreakWriter)) {
+            super.printElement(out, fstack, nstack, element);
+            return;
+        }
+        LineBreakWriter writer = (LineBreakWriter) out;
+        if (element.isRootElement()) {
+            writer.beforeMajorSections = findElementsBeforeMajorSections(element);
         }
+        boolean shouldBreakLine = writer.beforeMajorSections.contains(element);
         super.printElement(out, fstack, nstack, element);
-        buffer = (shouldBreakLine) ? fstack.getLineSeparator() : null;
+        writer.buffer = (shouldBreakLine) ? fstack.getLineSeparator() : null;
     }
 
     @Override
     protected void textRaw(Writer out, String str) throws IOException {
-        if (buffer != null) {
-            out.write(buffer);
-            buffer = null;
+        if (out instanceof LineBreakWriter) {
+            LineBreakWriter writer = (LineBreakWriter) out;
+            if (writer.buffer != null) {
+                out.write(writer.buffer);
+                writer.buffer = null;
+            }
         }
         super.textRaw(out, str);
     }
 
-    private static Element findNextSiblingElement(Element element) {
-        Element parent = element.getParentElement();
-        if (parent != null) {
-            List<Element> children = parent.getChildren();
-            int idx = children.indexOf(element);
-            if (idx < children.size() - 1) {
-                return children.get(idx + 1);
+    /**
+     * Find the children of the root element followed by a major section, which is a child of the root element with
+     * children of its own, in a single pass
+     */
+    private static Set<Element> findElementsBeforeMajorSections(Element rootElement) {
+        Set<Element> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Element> children = rootElement.getChildren();
+        Element previous = null;
+        for (Element child : children) {
+            if (previous != null && !child.getChildren().isEmpty()) {
+                result.add(previous);
             }
+            previous = child;
         }
-        return null;
+        return result;
     }
 
-    private static boolean shouldBreakLine(Element element) {
-        Element rootElement = element.getDocument().getRootElement();
-        // Test if it's a major section
-        int idxElement = rootElement.indexOf(element);
-        List<Element> children = element.getChildren();
-        return (idxElement > -1 && !children.isEmpty());
+    /**
+     * Carries the state of a single output
+     */
+    private static final class LineBreakWriter extends Writer {
+
+        private final Writer out;
+
+        private String buffer;
+
+        private Set<Element> beforeMajorSections = Collections.emptySet();
+
+        private LineBreakWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            out.write(c);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            out.write(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            out.write(str, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
     }
 }
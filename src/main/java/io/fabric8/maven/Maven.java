@@ -1,26 +1,45 @@
 package io.fabric8.maven;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.maven.model.InputLocation;
 import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.apache.maven.model.io.xpp3.MavenXpp3ReaderEx;
 import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
 import org.codehaus.plexus.util.xml.XmlStreamReader;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.jdom2.Document;
 import org.jdom2.JDOMException;
-import org.jdom2.input.SAXBuilder;
 import org.jdom2.output.XMLOutputter;
 
 /**
@@ -60,8 +79,20 @@ public final class Maven {
      * @return the maven {@link Model}
      */
     public static Model readModel(Path pom) {
+        return readModel(pom, ReadOptions.DEFAULT);
+    }
+
+    /**
+     * Read the {@link Path} as a {@link Model}
+     *
+     * @param pom a path to a pom.xml file
+     * @param options the options to read the file with
+     * @return the maven {@link Model}
+     */
+    public static Model readModel(Path pom, ReadOptions options) {
+        ModelIOListener listener = ModelIOListeners.of(options.getListener());
         try (BufferedReader br = Files.newBufferedReader(pom)) {
-            Model model = readModel(br);
+            Model model = readModel(br, options, pom, listener != null ? Files.size(pom) : -1L, listener);
             model.setPomFile(pom.toFile());
             return model;
         } catch (IOException io) {
@@ -76,19 +107,76 @@ public final class Maven {
      * @return the maven {@link Model}
      */
     public static Model readModel(Reader rdr) {
+        return readModel(rdr, ReadOptions.DEFAULT);
+    }
+
+    /**
+     * Read the {@link Path} as a {@link Model}
+     *
+     * @param rdr a Reader on the contents of a pom file
+     * @param options the options to read the contents with
+     * @return the maven {@link Model}
+     */
+    public static Model readModel(Reader rdr, ReadOptions options) {
+        return readModel(rdr, options, null, -1L, ModelIOListeners.of(options.getListener()));
+    }
+
+    /**
+     * Read the contents of a POM file as a {@link Model}, notifying the listener
+     *
+     * @param rdr a Reader on the contents of a pom file
+     * @param options the options to read the contents with
+     * @param pom the path to the POM file, may be null
+     * @param size the number of bytes of the contents, -1 if it is not known
+     * @param listener the listener to notify, may be null
+     * @return the maven {@link Model}
+     */
+    static Model readModel(Reader rdr, ReadOptions options, Path pom, long size, ModelIOListener listener) {
+        long start = ModelIOListeners.started(listener, ModelIOListener.Phase.READ, pom);
+        if (listener != null && size >= 0L) {
+            listener.bytesRead(pom, size);
+        }
+        Model model;
         try (Reader reader = rdr) {
-            MavenXpp3ReaderEx mavenXpp3Reader = new MavenXpp3ReaderEx();
-            Model model = mavenXpp3Reader.read(reader, true, null);
-            // https://github.com/fabric8-launcher/maven-model-helper/issues/44
-            SortedProperties sortedProps = new SortedProperties();
-            sortedProps.putAll(model.getProperties());
-            model.setProperties(sortedProps);
-            return model;
+            if (options.getParser() == ReadOptions.Parser.STAX) {
+                // Fills a SortedProperties directly
+                model = StaxModelReader.read(reader, options.isTrackLocations());
+            } else {
+                model = options.isTrackLocations()
+                        ? new MavenXpp3ReaderEx().read(reader, true, null)
+                        : readModelWithoutLocations(reader);
+                // https://github.com/fabric8-launcher/maven-model-helper/issues/44
+                SortedProperties sortedProps = new SortedProperties();
+                sortedProps.putAll(model.getProperties());
+                model.setProperties(sortedProps);
+            }
         } catch (IOException io) {
             throw new UncheckedIOException("Error while reading pom.xml", io);
-        } catch (XmlPullParserException e) {
+        } catch (XmlPullParserException | XMLStreamException e) {
             throw new RuntimeException("Error while parsing pom.xml", e);
         }
+        ModelIOListeners.ended(listener, ModelIOListener.Phase.READ, pom, start);
+        return model;
+    }
+
+    /**
+     * Read the model without {@link InputLocation}s, except for the packaging, which
+     * {@link io.fabric8.maven.merge.SmartModelMerger} relies on to tell whether it was declared
+     */
+    private static Model readModelWithoutLocations(Reader reader) throws IOException, XmlPullParserException {
+        boolean[] packagingDeclared = new boolean[1];
+        // The transformer sees every field, "packaging" is only used by the model itself
+        MavenXpp3Reader mavenXpp3Reader = new MavenXpp3Reader((source, fieldName) -> {
+            if ("packaging".equals(fieldName)) {
+                packagingDeclared[0] = true;
+            }
+            return source;
+        });
+        Model model = mavenXpp3Reader.read(reader, true);
+        if (packagingDeclared[0]) {
+            model.setLocation("packaging", new InputLocation(-1, -1));
+        }
+        return model;
     }
 
     /**
@@ -98,13 +186,122 @@ public final class Maven {
      * @return the maven {@link Model}
      */
     public static Model readModel(InputStream inputStream) {
+        return readModel(inputStream, ReadOptions.DEFAULT);
+    }
+
+    /**
+     * Read the {@link InputStream} as a {@link Model}
+     *
+     * @param inputStream an input stream of a pom.xml file
+     * @param options the options to read the stream with
+     * @return the maven {@link Model}
+     */
+    public static Model readModel(InputStream inputStream, ReadOptions options) {
         try (XmlStreamReader xmlStreamReader = new XmlStreamReader(inputStream)) {
-            return readModel(xmlStreamReader);
+            return readModel(xmlStreamReader, options);
         } catch (IOException io) {
             throw new UncheckedIOException("Error while reading stream", io);
         }
     }
 
+    /**
+     * Read the bytes of a POM file as a {@link Model}, honoring the encoding declared in the XML prolog
+     *
+     * @param contents the contents of a pom.xml file
+     * @return the maven {@link Model}
+     */
+    public static Model readModel(byte[] contents) {
+        return readModel(new ByteArrayInputStream(contents));
+    }
+
+    /**
+     * Read the remaining bytes of the {@link ByteBuffer} as a {@link Model}, honoring the encoding declared in the XML
+     * prolog.
+     * <p>
+     * The bytes are decoded as they are parsed instead of being copied first, and the position of the buffer is left
+     * untouched.
+     *
+     * @param contents the contents of a pom.xml file
+     * @return the maven {@link Model}
+     */
+    public static Model readModel(ByteBuffer contents) {
+        return readModel(new ByteBufferInputStream(contents));
+    }
+
+    /**
+     * Read the {@link Path} as a {@link Model} by mapping the file in memory instead of reading it through a buffer.
+     * <p>
+     * The mapping is released when it is garbage collected, which on some platforms prevents the file from being
+     * deleted or replaced until then.
+     *
+     * @param pom a path to a pom.xml file
+     * @return the maven {@link Model}
+     */
+    public static Model readModelMapped(Path pom) {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(pom, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException io) {
+            throw new UncheckedIOException("Error while reading pom.xml", io);
+        }
+        Model model = readModel(buffer);
+        model.setPomFile(pom.toFile());
+        return model;
+    }
+
+    /**
+     * Read the POM files concurrently on the common {@link ForkJoinPool}
+     *
+     * @param poms the paths to the pom.xml files
+     * @return the result of reading each path, in the iteration order of the collection
+     * @see #readModels(Collection, Executor)
+     */
+    public static List<ModelReadResult> readModels(Collection<Path> poms) {
+        return readModels(poms, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Read the POM files concurrently on the given {@link Executor}, such as
+     * {@code Executors.newVirtualThreadPerTaskExecutor()} where available.
+     * <p>
+     * A file that can't be read doesn't abort the others, its failure is reported in its {@link ModelReadResult}
+     * instead.
+     *
+     * @param poms the paths to the pom.xml files
+     * @param executor the executor to read the files on
+     * @return the result of reading each path, in the iteration order of the collection
+     */
+    public static List<ModelReadResult> readModels(Collection<Path> poms, Executor executor) {
+        return readModels(poms, executor, ReadOptions.DEFAULT);
+    }
+
+    /**
+     * Read the POM files concurrently on the given {@link Executor} with the given options
+     *
+     * @param poms the paths to the pom.xml files
+     * @param executor the executor to read the files on
+     * @param options the options to read the files with
+     * @return the result of reading each path, in the iteration order of the collection
+     * @see #readModels(Collection, Executor)
+     */
+    public static List<ModelReadResult> readModels(Collection<Path> poms, Executor executor, ReadOptions options) {
+        List<CompletableFuture<ModelReadResult>> futures = new ArrayList<>(poms.size());
+        for (Path pom : poms) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return ModelReadResult.success(pom, readModel(pom, options));
+                } catch (RuntimeException e) {
+                    return ModelReadResult.failure(pom, e);
+                }
+            }, executor));
+        }
+        List<ModelReadResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<ModelReadResult> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
     /**
      * Shortcut to writeModel(model,model.getPomFile().toPath());
      *
@@ -121,13 +318,7 @@ public final class Maven {
      * @param pom the path to the POM file
      */
     public static void writeModel(Model model, Path pom) {
-        writeModel(model, pom, () -> {
-            try {
-                return Files.newBufferedWriter(pom);
-            } catch (IOException e) {
-                throw new UncheckedIOException("Could not write to Writer", e);
-            }
-        });
+        writeModel(model, pom, (XMLFormat) null);
     }
 
     /**
@@ -138,13 +329,51 @@ public final class Maven {
      * @param format the XML format to use
      */
     public static void writeModel(Model model, Path pom, XMLFormat format) {
+        writeModel(model, pom, format, ModelIOListeners.of(null));
+    }
+
+    private static void writeModel(Model model, Path pom, XMLFormat format, ModelIOListener listener) {
         writeModel(model, pom, () -> {
             try {
-                return Files.newBufferedWriter(pom);
+                if (listener == null) {
+                    return Files.newBufferedWriter(pom);
+                }
+                // Report the bytes written when the writer is closed, before the output ends
+                OutputStream out = new CountingOutputStream(Files.newOutputStream(pom), pom, listener);
+                return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
             } catch (IOException e) {
                 throw new UncheckedIOException("Could not write to Writer", e);
             }
-        }, format);
+        }, format, listener);
+    }
+
+    /**
+     * Write the Model back to the provided {@link Path} using the specified {@link WriteOptions}
+     *
+     * @param model the model to write
+     * @param pom the path to the POM file
+     * @param options how to write the file, such as atomically
+     */
+    public static void writeModel(Model model, Path pom, WriteOptions options) {
+        writeModel(model, pom, null, options);
+    }
+
+    /**
+     * Write the Model back to the provided {@link Path} using the specified {@link XMLFormat} and {@link WriteOptions}
+     *
+     * @param model the model to write
+     * @param pom the path to the POM file
+     * @param format the XML format to use, may be null
+     * @param options how to write the file, such as atomically
+     */
+    public static void writeModel(Model model, Path pom, XMLFormat format, WriteOptions options) {
+        ModelIOListener listener = ModelIOListeners.of(options.getListener());
+        if (!options.isAtomic() && !options.isSync()) {
+            writeModel(model, pom, format, listener);
+            return;
+        }
+        // Render the complete contents before touching the file
+        writeBytes(pom, render(model, pom, format, listener).toByteArray(), options);
     }
 
     /**
@@ -198,42 +427,392 @@ public final class Maven {
      * @param writerSupplier the writer supplier to write the model to
      */
     public static void writeModel(Model model, Path pom, Supplier<Writer> writerSupplier, XMLFormat format) {
+        writeModel(model, pom, writerSupplier, format, ModelIOListeners.of(null));
+    }
+
+    private static void writeModel(Model model, Path pom, Supplier<Writer> writerSupplier, XMLFormat format,
+            ModelIOListener listener) {
         if (pom == null || pom.toFile().length() == 0L) {
-            // Initialize an empty XML
-            try (Writer writer = writerSupplier.get()) {
-                if (format != null) {
-                    // Format specified, write to a String first
-                    StringWriter sw = new StringWriter();
-                    MavenXpp3Writer mavenXpp3Writer = new MavenXpp3Writer();
-                    mavenXpp3Writer.write(sw, model);
-                    format.format(new StringReader(sw.toString()), writer);
-                } else {
-                    // No format specified, keep original behavior
-                    MavenXpp3Writer mavenXpp3Writer = new MavenXpp3Writer();
-                    mavenXpp3Writer.write(writer, model);
-                }
-            } catch (IOException e) {
-                throw new UncheckedIOException("Could not write POM file: " + pom, e);
-            }
+            writeNewModel(model, pom, writerSupplier, format, listener);
         } else {
-            Document document;
+            byte[] contents;
             try {
-                document = new SAXBuilder().build(pom.toFile());
-            } catch (JDOMException e) {
-                throw new RuntimeException("Could not parse POM file: " + pom, e);
+                contents = Files.readAllBytes(pom);
             } catch (IOException e) {
                 throw new UncheckedIOException("Could not read POM file: " + pom, e);
             }
-            String indentation = (format != null && format.getIndent() != null) ? format.getIndent()
-                    : XMLFormat.findIndentation(pom);
-            try (Writer writer = writerSupplier.get()) {
-                MavenJDOMWriter mavenJDOMWriter = new MavenJDOMWriter(indentation);
-                XMLOutputter xmlOutputter = format != null ? format.createXmlOutputter()
-                        : XMLFormat.DEFAULT.createXmlOutputter();
-                mavenJDOMWriter.write(model, document, writer, xmlOutputter);
-            } catch (IOException e) {
-                throw new UncheckedIOException("Could not write to Writer", e);
+            writeModel(model, pom, contents, writerSupplier, format, listener);
+        }
+    }
+
+    /**
+     * Serialize the Model as a new POM file
+     */
+    private static void writeNewModel(Model model, Path pom, Supplier<Writer> writerSupplier, XMLFormat format,
+            ModelIOListener listener) {
+        long start = ModelIOListeners.started(listener, ModelIOListener.Phase.OUTPUT, pom);
+        // Initialize an empty XML
+        try (Writer writer = writerSupplier.get()) {
+            if (format != null && FormattingWriter.supports(format)) {
+                // Format specified, format the XML while it is serialized
+                FormattingWriter formattingWriter = new FormattingWriter(writer, format);
+                MavenXpp3Writer mavenXpp3Writer = new MavenXpp3Writer();
+                mavenXpp3Writer.write(formattingWriter, model);
+                formattingWriter.finish();
+            } else if (format != null) {
+                // Format without indentation, write to a String first
+                StringWriter sw = new StringWriter();
+                MavenXpp3Writer mavenXpp3Writer = new MavenXpp3Writer();
+                mavenXpp3Writer.write(sw, model);
+                format.format(new StringReader(sw.toString()), writer);
+            } else {
+                // No format specified, keep original behavior
+                MavenXpp3Writer mavenXpp3Writer = new MavenXpp3Writer();
+                mavenXpp3Writer.write(writer, model);
             }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write POM file: " + pom, e);
+        }
+        ModelIOListeners.ended(listener, ModelIOListener.Phase.OUTPUT, pom, start);
+    }
+
+    /**
+     * Update the existing contents of a POM file from the Model
+     */
+    private static void writeModel(Model model, Path pom, byte[] contents, Supplier<Writer> writerSupplier,
+            XMLFormat format, ModelIOListener listener) {
+        long start = ModelIOListeners.started(listener, ModelIOListener.Phase.PARSE, pom);
+        String source = decodeSource(contents, pom);
+        Document document = parseDocument(source, pom);
+        SplicingProcessor splicer = splicer(format, source, document);
+        if (listener != null) {
+            listener.bytesRead(pom, contents.length);
+            listener.elementsProcessed(ModelIOListener.Phase.PARSE, pom, ModelIOListeners.countElements(document));
+        }
+        ModelIOListeners.ended(listener, ModelIOListener.Phase.PARSE, pom, start);
+        start = ModelIOListeners.started(listener, ModelIOListener.Phase.DETECT_INDENTATION, pom);
+        String indentation = XMLFormat.findIndentation(source);
+        ModelIOListeners.ended(listener, ModelIOListener.Phase.DETECT_INDENTATION, pom, start);
+        writeModel(model, document, indentation, splicer, writerSupplier, format, pom, listener);
+    }
+
+    /**
+     * Shortcut to writeModel(model,model.getPomFile().toPath(),outputStream);
+     *
+     * @param model the model to write
+     * @param outputStream the stream to write the model to in UTF-8, closed once written
+     */
+    public static void writeModel(Model model, OutputStream outputStream) {
+        writeModel(model, outputStream, null);
+    }
+
+    /**
+     * Shortcut to writeModel(model,model.getPomFile().toPath(),outputStream, format);
+     *
+     * @param model the model to write
+     * @param outputStream the stream to write the model to in UTF-8, closed once written
+     * @param format the XML format to use
+     */
+    public static void writeModel(Model model, OutputStream outputStream, XMLFormat format) {
+        writeModel(model, model.getPomFile() != null ? model.getPomFile().toPath() : null, outputStream, format);
+    }
+
+    /**
+     * Write the Model to the {@link OutputStream} in UTF-8 using the provided {@link Path} as a reference.
+     * <p>
+     * The characters are encoded as they are rendered, through the buffer of a single encoder, instead of being
+     * collected in a {@link String} first.
+     *
+     * @param model the model to write
+     * @param pom the path to the POM file
+     * @param outputStream the stream to write the model to, closed once written
+     * @param format the XML format to use, may be null
+     */
+    public static void writeModel(Model model, Path pom, OutputStream outputStream, XMLFormat format) {
+        writeModel(model, pom, () -> utf8Writer(outputStream), format);
+    }
+
+    /**
+     * Render the Model as the UTF-8 bytes of a POM file using the provided {@link Path} as a reference
+     *
+     * @param model the model to write
+     * @param pom the path to the POM file, may be null
+     * @param format the XML format to use, may be null
+     * @return the rendered POM file
+     */
+    public static byte[] writeModelToBytes(Model model, Path pom, XMLFormat format) {
+        return writeModelToBytes(model, pom, format, ModelIOListeners.of(null));
+    }
+
+    static byte[] writeModelToBytes(Model model, Path pom, XMLFormat format, ModelIOListener listener) {
+        return render(model, pom, format, listener).toByteArray();
+    }
+
+    /**
+     * Render the Model as the UTF-8 bytes of a POM file using the provided {@link Path} as a reference.
+     * <p>
+     * Unlike {@link #writeModelToBytes(Model, Path, XMLFormat)}, the bytes are not copied to an array of their exact
+     * size: the buffer wraps the array they were rendered into, from position 0 to its limit.
+     *
+     * @param model the model to write
+     * @param pom the path to the POM file, may be null
+     * @param format the XML format to use, may be null
+     * @return the rendered POM file
+     */
+    public static ByteBuffer writeModelToByteBuffer(Model model, Path pom, XMLFormat format) {
+        return render(model, pom, format, ModelIOListeners.of(null)).toByteBuffer();
+    }
+
+    /**
+     * @param outputStream the stream to write to
+     * @return a writer encoding to UTF-8 through reused buffers
+     */
+    static Writer utf8Writer(OutputStream outputStream) {
+        // The encoder copies every String written to it into a new array, the buffer copies them into its own
+        return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    private static ByteBufferOutputStream render(Model model, Path pom, XMLFormat format, ModelIOListener listener) {
+        // Updating a POM file hardly changes its size
+        long size = pom != null ? pom.toFile().length() : 0L;
+        ByteBufferOutputStream out = new ByteBufferOutputStream(
+                size > 0 ? (int) Math.min(size + (size >> 3), Integer.MAX_VALUE - 8) : 4096);
+        writeModel(model, pom, () -> utf8Writer(out), format, listener);
+        return out;
+    }
+
+    /**
+     * Write the Model back to the provided {@link Path} only if that changes its contents.
+     * <p>
+     * The POM is rendered in memory and compared with the current contents of the file, which is left untouched
+     * (including its last modified time) when they are identical.
+     *
+     * @param model the model to write
+     * @param pom the path to the POM file
+     * @return true if the file was written, false if it already had the same contents
+     */
+    public static boolean writeModelIfChanged(Model model, Path pom) {
+        return writeModelIfChanged(model, pom, null);
+    }
+
+    /**
+     * Write the Model back to the provided {@link Path} using the specified {@link XMLFormat} only if that changes its
+     * contents.
+     *
+     * @param model the model to write
+     * @param pom the path to the POM file
+     * @param format the XML format to use
+     * @return true if the file was written, false if it already had the same contents
+     * @see #writeModelIfChanged(Model, Path)
+     */
+    public static boolean writeModelIfChanged(Model model, Path pom, XMLFormat format) {
+        return writeModelIfChanged(model, pom, format, WriteOptions.DEFAULT);
+    }
+
+    /**
+     * Write the Model back to the provided {@link Path} using the specified {@link XMLFormat} and {@link WriteOptions}
+     * only if that changes its contents.
+     *
+     * @param model the model to write
+     * @param pom the path to the POM file
+     * @param format the XML format to use, may be null
+     * @param options how to write the file, such as atomically
+     * @return true if the file was written, false if it already had the same contents
+     * @see #writeModelIfChanged(Model, Path)
+     */
+    public static boolean writeModelIfChanged(Model model, Path pom, XMLFormat format, WriteOptions options) {
+        ModelIOListener listener = ModelIOListeners.of(options.getListener());
+        byte[] contents;
+        try {
+            contents = Files.exists(pom) ? Files.readAllBytes(pom) : new byte[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read POM file: " + pom, e);
+        }
+        ByteBufferOutputStream out = new ByteBufferOutputStream(contents.length > 0 ? contents.length : 4096);
+        Supplier<Writer> writerSupplier = () -> utf8Writer(out);
+        if (contents.length == 0) {
+            writeNewModel(model, pom, writerSupplier, format, listener);
+        } else {
+            writeModel(model, pom, contents, writerSupplier, format, listener);
+        }
+        if (ByteBuffer.wrap(contents).equals(out.toByteBuffer())) {
+            return false;
+        }
+        writeBytes(pom, out.toByteArray(), options);
+        return true;
+    }
+
+    /**
+     * Write the Model to the {@link Writer} by updating an already parsed {@link Document}
+     *
+     * @param model the model to write
+     * @param document the parsed POM file, updated in place
+     * @param indentation the indentation detected in the POM file, used unless the format specifies one
+     * @param writerSupplier the writer supplier to write the model to
+     * @param format the XML format to use, may be null
+     */
+    static void writeModel(Model model, Document document, String indentation, Supplier<Writer> writerSupplier,
+            XMLFormat format) {
+        writeModel(model, document, indentation, null, writerSupplier, format);
+    }
+
+    /**
+     * Write the Model to the {@link Writer} by updating an already parsed {@link Document}, copying its unchanged
+     * content from the source it was parsed from
+     *
+     * @param model the model to write
+     * @param document the parsed POM file, updated in place
+     * @param indentation the indentation detected in the POM file, used unless the format specifies one
+     * @param splicer the processor recorded from the POM file before it was updated, may be null
+     * @param writerSupplier the writer supplier to write the model to
+     * @param format the XML format to use, may be null
+     */
+    static void writeModel(Model model, Document document, String indentation, SplicingProcessor splicer,
+            Supplier<Writer> writerSupplier, XMLFormat format) {
+        writeModel(model, document, indentation, splicer, writerSupplier, format, null, ModelIOListeners.of(null));
+    }
+
+    /**
+     * Write the Model to the {@link Writer} by updating an already parsed {@link Document}, notifying the listener
+     *
+     * @param model the model to write
+     * @param document the parsed POM file, updated in place
+     * @param indentation the indentation detected in the POM file, used unless the format specifies one
+     * @param splicer the processor recorded from the POM file before it was updated, may be null
+     * @param writerSupplier the writer supplier to write the model to
+     * @param format the XML format to use, may be null
+     * @param pom the path to the POM file, may be null
+     * @param listener the listener to notify, may be null
+     */
+    static void writeModel(Model model, Document document, String indentation, SplicingProcessor splicer,
+            Supplier<Writer> writerSupplier, XMLFormat format, Path pom, ModelIOListener listener) {
+        if (splicer == null && format != null && format.getIndent() != null) {
+            // Spliced content keeps the indentation of the POM file
+            indentation = format.getIndent();
+        }
+        MavenJDOMWriter mavenJDOMWriter = new MavenJDOMWriter(indentation, splicer != null);
+        XMLOutputter xmlOutputter;
+        if (splicer != null) {
+            xmlOutputter = format.createXmlOutputter(splicer);
+        } else {
+            xmlOutputter = format != null ? format.createXmlOutputter() : XMLFormat.DEFAULT.createXmlOutputter();
+        }
+        long start = ModelIOListeners.started(listener, ModelIOListener.Phase.UPDATE, pom);
+        mavenJDOMWriter.update(model, document);
+        if (listener != null) {
+            listener.elementsMutated(ModelIOListener.Phase.UPDATE, pom, mavenJDOMWriter.getMutations());
+        }
+        ModelIOListeners.ended(listener, ModelIOListener.Phase.UPDATE, pom, start);
+        // The writer is closed within the output, so that the bytes written are reported before it ends
+        start = ModelIOListeners.started(listener, ModelIOListener.Phase.OUTPUT, pom);
+        try (Writer writer = writerSupplier.get()) {
+            xmlOutputter.output(document, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to Writer", e);
+        }
+        ModelIOListeners.ended(listener, ModelIOListener.Phase.OUTPUT, pom, start);
+    }
+
+    /**
+     * Record the source of a POM file if the format splices unchanged content. Must be called before the document is
+     * updated.
+     *
+     * @param format the XML format to use, may be null
+     * @param source the contents of the POM file
+     * @param document the document parsed from the source
+     * @return the processor, or null if the format does not splice or the source could not be matched
+     */
+    static SplicingProcessor splicer(XMLFormat format, String source, Document document) {
+        if (format == null || !format.isSpliceUnchangedContent()) {
+            return null;
+        }
+        return SplicingProcessor.record(source, document);
+    }
+
+    /**
+     * Decode the contents of a POM file, honoring the encoding declared in the XML prolog
+     *
+     * @param contents the contents of the POM file
+     * @param pom the path to the POM file, used in error messages
+     * @return the decoded contents of the POM file
+     */
+    static String decodeSource(byte[] contents, Path pom) {
+        try (XmlStreamReader reader = new XmlStreamReader(new ByteArrayInputStream(contents))) {
+            StringWriter sw = new StringWriter(contents.length);
+            reader.transferTo(sw);
+            return sw.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read POM file: " + pom, e);
+        }
+    }
+
+    /**
+     * Parse the contents of a POM file as a JDOM {@link Document}
+     *
+     * @param source the contents of the POM file
+     * @param pom the path to the POM file, used in error messages
+     * @return the parsed {@link Document}
+     */
+    static Document parseDocument(String source, Path pom) {
+        try {
+            return XMLParsers.build(new StringReader(source));
+        } catch (JDOMException e) {
+            throw new RuntimeException("Could not parse POM file: " + pom, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read POM file: " + pom, e);
+        }
+    }
+
+    /**
+     * Replace the contents of the file with the given bytes
+     *
+     * @param pom the path to the POM file
+     * @param contents the new contents
+     * @param options how to write the file
+     */
+    static void writeBytes(Path pom, byte[] contents, WriteOptions options) {
+        ModelIOListener listener = ModelIOListeners.of(options.getListener());
+        long start = ModelIOListeners.started(listener, ModelIOListener.Phase.STORE, pom);
+        AtomicFiles.write(pom, contents, options);
+        if (listener != null) {
+            listener.bytesWritten(pom, contents.length);
+        }
+        ModelIOListeners.ended(listener, ModelIOListener.Phase.STORE, pom, start);
+    }
+
+    /**
+     * Counts the bytes written to a POM file, reported to the listener when it is closed
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private final Path pom;
+
+        private final ModelIOListener listener;
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out, Path pom, ModelIOListener listener) {
+            super(out);
+            this.pom = pom;
+            this.listener = listener;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            listener.bytesWritten(pom, count);
         }
     }
 }
@@ -4,9 +4,12 @@ import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Properties;
 
 import org.apache.maven.model.Activation;
@@ -50,6 +53,7 @@ import org.jdom2.Content;
 import org.jdom2.DefaultJDOMFactory;
 import org.jdom2.Document;
 import org.jdom2.Element;
+import org.jdom2.Namespace;
 import org.jdom2.Text;
 import org.jdom2.output.XMLOutputter;
 
@@ -80,14 +84,34 @@ final class MavenJDOMWriter {
      */
     private final String indentation;
 
+    /**
+     * Field keepPaddedText, whether text only differing by leading and trailing whitespace is left untouched
+     */
+    private final boolean keepPaddedText;
+
+    /**
+     * Field childIndex, the children of each parent looked up during a write, by name
+     */
+    private final Map<Element, ChildIndex> childIndex = new IdentityHashMap<>();
+
+    /**
+     * Field mutations, the number of elements added, removed or changed by the last update
+     */
+    private int mutations;
+
     // ----------------/
     // - Constructors -/
     // ----------------/
 
     public MavenJDOMWriter(String indentation) {
+        this(indentation, false);
+    }
+
+    public MavenJDOMWriter(String indentation, boolean keepPaddedText) {
         factory = new DefaultJDOMFactory();
         lineSeparator = "\n";
         this.indentation = indentation;
+        this.keepPaddedText = keepPaddedText;
     }
 
     /**
@@ -99,10 +123,34 @@ final class MavenJDOMWriter {
      * @param xmlOutputter The {@link XMLOutputter} to use for output
      */
     public void write(Model project, Document document, Writer writer, XMLOutputter xmlOutputter) throws java.io.IOException {
-        updateModel(project, Counter.initialCounter(), document.getRootElement());
+        update(project, document);
         xmlOutputter.output(document, writer);
     }
 
+    /**
+     * Method update.
+     *
+     * @param project The Model to write
+     * @param document The Document to update
+     */
+    public void update(Model project, Document document) {
+        mutations = 0;
+        try {
+            updateModel(project, Counter.initialCounter(), document.getRootElement());
+        } finally {
+            childIndex.clear();
+        }
+    }
+
+    /**
+     * Method getMutations.
+     *
+     * @return the number of elements added, removed or changed by the last update
+     */
+    public int getMutations() {
+        return mutations;
+    }
+
     // -----------/
     // - Methods -/
     // -----------/
@@ -123,26 +171,45 @@ final class MavenJDOMWriter {
             Counter innerCounter = counter.newNextDepthLevelCounter();
             while (it.hasNext()) {
                 String key = it.next().toString();
-                if ((element.getChild(key, parent.getNamespace()) == null)) {
+                if ((getChild(element, key, parent.getNamespace()) == null)) {
                     //If it is a new entry, append instead of messing with the existing contents
                     Element newProperty = factory.element(key, parent.getNamespace()).setText(props.getProperty(key));
-                    // Move pointer to last element
-                    innerCounter.setCurrentIndex(element.getContentSize());
-                    insertAtPreferredLocation(element, newProperty, innerCounter);
+                    appendAfterLastElement(element, newProperty, innerCounter);
                 } else {
                     findAndReplaceSimpleElement(innerCounter, element, key, props.getProperty(key), null, false);
                 }
             }
-            // Remove properties that no longer exist
-            var itElem = element.getChildren().iterator();
-            while (itElem.hasNext()) {
-                Element elem = itElem.next();
-                String key = elem.getName();
-                if (!props.containsKey(key)) {
-                    itElem.remove();
-                }
+            removeProperties(element, props);
+        }
+    }
+
+    /**
+     * Method removeProperties, removing the properties that no longer exist in a single pass over the content, as
+     * removing them one by one shifts the rest of the content each time.
+     *
+     * @param element The properties element
+     * @param props The properties to keep
+     */
+    private void removeProperties(Element element, Properties props) {
+        List<Content> content = element.getContent();
+        List<Content> kept = null;
+        for (int i = 0; i < content.size(); i++) {
+            Content child = content.get(i);
+            boolean removed = child instanceof Element && !props.containsKey(((Element) child).getName());
+            if (removed) {
+                mutations++;
+            }
+            if (removed && kept == null) {
+                kept = new ArrayList<>(content.subList(0, i));
+            } else if (!removed && kept != null) {
+                kept.add(child);
             }
         }
+        if (kept != null) {
+            // The indentation of the removed properties is kept, as it was when they were removed one by one
+            element.removeContent();
+            element.addContent(kept);
+        }
     }
 
     /**
@@ -158,11 +225,12 @@ final class MavenJDOMWriter {
     private void findAndReplaceSimpleElement(Counter counter, Element parent, String name, String text,
             String defaultValue, boolean preserveEmpty) {
         if ((defaultValue != null) && defaultValue.equals(text)) {
-            Element element = parent.getChild(name, parent.getNamespace());
+            Element element = getChild(parent, name, parent.getNamespace());
             // if exist and is default value or if it doesn't exist, just keep the
             // way it is. otherwise remove it
             if (element != null && !defaultValue.equals(element.getText())) {
                 parent.removeContent(element);
+                mutations++;
                 removeExtraIndents(parent.getContent());
             }
             return;
@@ -171,7 +239,7 @@ final class MavenJDOMWriter {
         boolean shouldExist = (text != null) && (preserveEmpty || !text.trim().isEmpty());
         Element element = updateElement(counter, parent, name, shouldExist);
         if (shouldExist) {
-            element.setText(text);
+            setText(element, text);
         }
     }
 
@@ -208,13 +276,14 @@ final class MavenJDOMWriter {
                     el = factory.element(childName, element.getNamespace());
                     insertAtPreferredLocation(element, el, innerCount);
                 }
-                el.setText(value);
+                setText(el, value);
                 innerCount.increaseCount();
             }
             if (elIt != null) {
                 while (elIt.hasNext()) {
                     elIt.next();
                     elIt.remove();
+                    mutations++;
                 }
                 removeExtraIndents(element.getContent());
             }
@@ -237,6 +306,47 @@ final class MavenJDOMWriter {
         }
     }
 
+    /**
+     * Method setText, leaving the element untouched if it already has the given text. When splicing, the text only
+     * counts, so that comments, CDATA sections and padding around an unchanged value are copied verbatim. Otherwise
+     * the element must hold nothing but that text, and any comment or CDATA section is replaced.
+     *
+     * @param element The element
+     * @param text The text to set
+     */
+    private void setText(Element element, String text) {
+        if (text == null || !element.getChildren().isEmpty()) {
+            element.setText(text);
+            mutations++;
+            return;
+        }
+        if (keepPaddedText) {
+            String current = element.getText();
+            if (text.equals(current) || text.equals(current.trim())) {
+                return;
+            }
+        } else if (hasOnlyText(element, text)) {
+            return;
+        }
+        // The text of an added element is part of the addition
+        boolean added = element.getContentSize() == 0;
+        element.setText(text);
+        if (!added) {
+            mutations++;
+        }
+    }
+
+    /**
+     * @return true if the only content of the element is a plain text node with the given text
+     */
+    private static boolean hasOnlyText(Element element, String text) {
+        if (element.getContentSize() != 1) {
+            return text.isEmpty() && element.getContentSize() == 0;
+        }
+        Content content = element.getContent(0);
+        return content.getCType() == Content.CType.Text && text.equals(((Text) content).getText());
+    }
+
     /**
      * Method insertAtPreferredLocation.
      *
@@ -258,6 +368,34 @@ final class MavenJDOMWriter {
                 offset = 0;
             }
         }
+        insertAt(parent, child, counter, contentIndex);
+    }
+
+    /**
+     * Method appendAfterLastElement, the equivalent of {@link #insertAtPreferredLocation} past the last element, which
+     * only looks at the content following that element.
+     *
+     * @param parent The parent element
+     * @param child The newProperty element
+     * @param counter The counter
+     */
+    private void appendAfterLastElement(Element parent, Element child, Counter counter) {
+        int contentIndex = parent.getContentSize();
+        while (contentIndex > 0 && !(parent.getContent(contentIndex - 1) instanceof Element)) {
+            contentIndex--;
+        }
+        insertAt(parent, child, counter, contentIndex);
+    }
+
+    /**
+     * Method insertAt, inserting the child along with its indentation.
+     *
+     * @param parent The parent element
+     * @param child The newProperty element
+     * @param counter The counter
+     * @param contentIndex The index in the content of the parent
+     */
+    private void insertAt(Element parent, Element child, Counter counter, int contentIndex) {
         Text lastText = factory.text(lineSeparator + indentation.repeat(counter.getDepth()));
         if (parent.getContentSize() == 0) {
             Text finalText = lastText.clone();
@@ -266,6 +404,30 @@ final class MavenJDOMWriter {
         }
         parent.addContent(contentIndex, child);
         parent.addContent(contentIndex, lastText);
+        mutations++;
+        ChildIndex index = childIndex.get(parent);
+        if (index != null) {
+            index.added(child);
+        }
+    }
+
+    /**
+     * Method getChild, an indexed equivalent of {@link Element#getChild(String, Namespace)}.
+     *
+     * @param parent The parent element
+     * @param name The name of the child
+     * @param namespace The namespace of the child
+     * @return the first child element with the given name and namespace, or null
+     */
+    private Element getChild(Element parent, String name, Namespace namespace) {
+        ChildIndex index = childIndex.get(parent);
+        if (index == null) {
+            index = new ChildIndex(parent, namespace);
+            childIndex.put(parent, index);
+        } else if (!index.namespace.equals(namespace)) {
+            return parent.getChild(name, namespace);
+        }
+        return index.get(name);
     }
 
     /**
@@ -305,6 +467,7 @@ final class MavenJDOMWriter {
                 while (elIt.hasNext()) {
                     elIt.next();
                     elIt.remove();
+                    mutations++;
                 }
                 removeExtraIndents(element.getContent());
             }
@@ -348,6 +511,7 @@ final class MavenJDOMWriter {
                 while (elIt.hasNext()) {
                     elIt.next();
                     elIt.remove();
+                    mutations++;
                 }
                 removeExtraIndents(element.getContent());
             }
@@ -410,6 +574,7 @@ final class MavenJDOMWriter {
                 while (elIt.hasNext()) {
                     elIt.next();
                     elIt.remove();
+                    mutations++;
                 }
                 removeExtraIndents(element.getContent());
             }
@@ -453,6 +618,7 @@ final class MavenJDOMWriter {
                 while (elIt.hasNext()) {
                     elIt.next();
                     elIt.remove();
+                    mutations++;
                 }
                 removeExtraIndents(element.getContent());
             }
@@ -496,6 +662,7 @@ final class MavenJDOMWriter {
                 while (elIt.hasNext()) {
                     elIt.next();
                     elIt.remove();
+                    mutations++;
                 }
                 removeExtraIndents(element.getContent());
             }
@@ -539,6 +706,7 @@ final class MavenJDOMWriter {
                 while (elIt.hasNext()) {
                     elIt.next();
                     elIt.remove();
+                    mutations++;
                 }
                 removeExtraIndents(element.getContent());
             }
@@ -582,6 +750,7 @@ final class MavenJDOMWriter {
                 while (elIt.hasNext()) {
                     elIt.next();
                     elIt.remove();
+                    mutations++;
                 }
                 removeExtraIndents(element.getContent());
             }
@@ -625,6 +794,7 @@ final class MavenJDOMWriter {
                 while (elIt.hasNext()) {
                     elIt.next();
                     elIt.remove();
+                    mutations++;
                 }
                 removeExtraIndents(element.getContent());
             }
@@ -668,6 +838,7 @@ final class MavenJDOMWriter {
                 while (elIt.hasNext()) {
                     elIt.next();
                     elIt.remove();
+                    mutations++;
                 }
                 removeExtraIndents(element.getContent());
             }
@@ -711,6 +882,7 @@ final class MavenJDOMWriter {
                 while (elIt.hasNext()) {
                     elIt.next();
                     elIt.remove();
+                    mutations++;
                 }
                 removeExtraIndents(element.getContent());
             }
@@ -754,6 +926,7 @@ final class MavenJDOMWriter {
                 while (elIt.hasNext()) {
                     elIt.next();
                     elIt.remove();
+                    mutations++;
                 }
                 removeExtraIndents(element.getContent());
             }
@@ -797,6 +970,7 @@ final class MavenJDOMWriter {
                 while (elIt.hasNext()) {
                     elIt.next();
                     elIt.remove();
+                    mutations++;
                 }
                 removeExtraIndents(element.getContent());
             }
@@ -840,6 +1014,7 @@ final class MavenJDOMWriter {
                 while (elIt.hasNext()) {
                     elIt.next();
                     elIt.remove();
+                    mutations++;
                 }
                 removeExtraIndents(element.getContent());
             }
@@ -886,6 +1061,7 @@ final class MavenJDOMWriter {
                 while (elIt.hasNext()) {
                     elIt.next();
                     elIt.remove();
+                    mutations++;
                 }
                 removeExtraIndents(element.getContent());
             }
@@ -932,6 +1108,7 @@ final class MavenJDOMWriter {
                 while (elIt.hasNext()) {
                     elIt.next();
                     elIt.remove();
+                    mutations++;
                 }
                 removeExtraIndents(element.getContent());
             }
@@ -968,6 +1145,7 @@ final class MavenJDOMWriter {
                     counter.increaseCount();
                 } else {
                     it.remove();
+                    mutations++;
                 }
             }
 
@@ -981,7 +1159,7 @@ final class MavenJDOMWriter {
                 replaceXpp3DOM(elem, dm, counter.newNextDepthLevelCounter());
             }
         } else if (parentDom.getValue() != null) {
-            parent.setText(parentDom.getValue());
+            setText(parent, parentDom.getValue());
         }
     }
 
@@ -1263,7 +1441,7 @@ final class MavenJDOMWriter {
      * @param shouldExist Whether the element should exist
      */
     private Element updateElement(Counter counter, Element parent, String name, boolean shouldExist) {
-        Element element = parent.getChild(name, parent.getNamespace());
+        Element element = getChild(parent, name, parent.getNamespace());
         if ((element != null) && shouldExist) {
             counter.increaseCount();
         }
@@ -1284,6 +1462,7 @@ final class MavenJDOMWriter {
                 }
             }
             parent.removeContent(element);
+            mutations++;
         }
         return element;
     }
@@ -1735,6 +1914,59 @@ final class MavenJDOMWriter {
     // - Inner Classes -/
     // -----------------/
 
+    /**
+     * Class ChildIndex, the first child element of a parent for each name.
+     * <p>
+     * Elements inserted by this writer are added as they are inserted, and elements removed from the parent are
+     * detected on lookup, so the index stays valid while the document is updated.
+     */
+    private static final class ChildIndex {
+
+        private final Element parent;
+
+        private final Namespace namespace;
+
+        private Map<String, Element> children;
+
+        ChildIndex(Element parent, Namespace namespace) {
+            this.parent = parent;
+            this.namespace = namespace;
+            this.children = index();
+        }
+
+        private Map<String, Element> index() {
+            List<Element> elements = parent.getChildren();
+            Map<String, Element> result = new HashMap<>(elements.size() * 2);
+            for (Element element : elements) {
+                if (element.getNamespace().equals(namespace)) {
+                    result.putIfAbsent(element.getName(), element);
+                }
+            }
+            return result;
+        }
+
+        Element get(String name) {
+            Element element = children.get(name);
+            if (element != null && element.getParent() != parent) {
+                // Removed since it was indexed, another element may have the same name
+                element = parent.getChild(name, namespace);
+                if (element == null) {
+                    children.remove(name);
+                } else {
+                    children.put(name, element);
+                }
+            }
+            return element;
+        }
+
+        void added(Element child) {
+            if (child.getNamespace().equals(namespace) && children.putIfAbsent(child.getName(), child) != null) {
+                // The new element may come before the indexed one
+                children = index();
+            }
+        }
+    }
+
     /**
      * Class Counter.
      */
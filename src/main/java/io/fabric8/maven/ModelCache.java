@@ -0,0 +1,168 @@
+package io.fabric8.maven;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.maven.model.Model;
+
+/**
+ * A bounded cache of the {@link Model}s read from POM files, for tools reading the same files (such as parent POMs)
+ * over and over.
+ * <p>
+ * Entries are keyed by the absolute path of the file and are only used while its size and last modified time are
+ * unchanged, so a file changed since it was cached is read again. When the cache is full, the least recently used
+ * entry is evicted.
+ * <p>
+ * Every call returns a new copy of the cached model, which callers are free to modify. Instances are thread-safe.
+ */
+public final class ModelCache {
+
+    private final int maximumSize;
+
+    private final Map<Path, CachedModel> entries;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long evictionCount;
+
+    /**
+     * @param maximumSize the maximum number of models to keep
+     */
+    public ModelCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, CachedModel> eldest) {
+                if (size() > ModelCache.this.maximumSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Read the {@link Path} as a {@link Model}, unless it is already cached and didn't change since
+     *
+     * @param pom a path to a pom.xml file
+     * @return a copy of the maven {@link Model}
+     * @see Maven#readModel(Path)
+     */
+    public Model readModel(Path pom) {
+        Path key = pom.toAbsolutePath().normalize();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while reading pom.xml", e);
+        }
+        synchronized (entries) {
+            CachedModel entry = entries.get(key);
+            if (entry != null && entry.matches(attributes)) {
+                hitCount++;
+                return entry.model.clone();
+            }
+            missCount++;
+        }
+        // Parse outside of the lock so that other files can be read concurrently
+        Model model = Maven.readModel(pom);
+        synchronized (entries) {
+            entries.put(key, new CachedModel(attributes.size(), attributes.lastModifiedTime(), model));
+        }
+        return model.clone();
+    }
+
+    /**
+     * Remove the model read from the {@link Path}, if cached
+     *
+     * @param pom a path to a pom.xml file
+     */
+    public void invalidate(Path pom) {
+        synchronized (entries) {
+            entries.remove(pom.toAbsolutePath().normalize());
+        }
+    }
+
+    /**
+     * Remove all the cached models
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return the maximum number of models kept
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return the number of models currently cached
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return the number of reads served from the cache
+     */
+    public long getHitCount() {
+        synchronized (entries) {
+            return hitCount;
+        }
+    }
+
+    /**
+     * @return the number of reads that had to parse the file, because it wasn't cached or had changed
+     */
+    public long getMissCount() {
+        synchronized (entries) {
+            return missCount;
+        }
+    }
+
+    /**
+     * @return the number of models evicted to respect the maximum size
+     */
+    public long getEvictionCount() {
+        synchronized (entries) {
+            return evictionCount;
+        }
+    }
+
+    private static final class CachedModel {
+
+        private final long size;
+
+        private final FileTime lastModifiedTime;
+
+        private final Model model;
+
+        private CachedModel(long size, FileTime lastModifiedTime, Model model) {
+            this.size = size;
+            this.lastModifiedTime = lastModifiedTime;
+            this.model = model;
+        }
+
+        private boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModifiedTime.equals(attributes.lastModifiedTime());
+        }
+    }
+}
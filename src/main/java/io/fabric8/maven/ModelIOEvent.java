@@ -0,0 +1,40 @@
+package io.fabric8.maven;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for a phase of reading, writing, merging or formatting POM files
+ */
+@Name("io.fabric8.maven.ModelIO")
+@Label("POM Model I/O")
+@Category({ "Maven", "POM" })
+@Description("A phase of reading, writing, merging or formatting POM files")
+final class ModelIOEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("POM File")
+    String pom;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytesRead;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytesWritten;
+
+    @Label("Elements")
+    @Description("The XML elements of a parsed or formatted document, or the models merged")
+    int elements;
+
+    @Label("Mutations")
+    @Description("The elements added, removed or changed while updating a document")
+    int mutations;
+}
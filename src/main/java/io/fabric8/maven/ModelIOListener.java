@@ -0,0 +1,124 @@
+package io.fabric8.maven;
+
+import java.nio.file.Path;
+
+/**
+ * Receives the timing and counters of reading, writing, merging and formatting POM files, to find where the time goes
+ * and which POM files are slow.
+ * <p>
+ * A listener is either registered for every call with {@link ModelIOListeners#register(ModelIOListener)}, or given to
+ * a single call through {@link ReadOptions.Builder#listener(ModelIOListener)},
+ * {@link WriteOptions.Builder#listener(ModelIOListener)} or
+ * {@link io.fabric8.maven.merge.SmartModelMerger#SmartModelMerger(ModelIOListener)}. Events are delivered on the
+ * thread doing the work, so listeners must be thread-safe, fast and must not throw. A phase that fails is started but
+ * never ended.
+ * <p>
+ * The bytes, elements and mutations of a phase are reported after it started and before it ended, except for the
+ * temporary files of a {@link PomWriteBatch}, which are written outside of any phase. The path of the POM file is null
+ * when it is not known, such as when a model is read from a stream.
+ * <p>
+ * {@link ModelIOMetrics} collects the events in memory. The phases are also recorded as {@code io.fabric8.maven.ModelIO}
+ * events by Java Flight Recorder, when a recording enables them.
+ */
+public interface ModelIOListener {
+
+    enum Phase {
+        /**
+         * Reading a POM file as a {@link org.apache.maven.model.Model}
+         */
+        READ,
+
+        /**
+         * Parsing an existing POM file as a document before it is updated
+         */
+        PARSE,
+
+        /**
+         * Detecting the indentation of an existing POM file
+         */
+        DETECT_INDENTATION,
+
+        /**
+         * Reconciling the model with the document of an existing POM file
+         */
+        UPDATE,
+
+        /**
+         * Printing an updated document, or serializing the model of a new POM file
+         */
+        OUTPUT,
+
+        /**
+         * Replacing the contents of POM files rendered in memory, atomically or synced as configured by the
+         * {@link WriteOptions}, or by committing a {@link PomWriteBatch}
+         */
+        STORE,
+
+        /**
+         * Merging models into another one
+         */
+        MERGE,
+
+        /**
+         * Formatting XML with {@link XMLFormat#format(java.io.Reader)}
+         */
+        FORMAT;
+    }
+
+    /**
+     * A phase started
+     *
+     * @param phase the phase
+     * @param pom the POM file, may be null
+     */
+    default void phaseStarted(Phase phase, Path pom) {
+    }
+
+    /**
+     * A phase ended
+     *
+     * @param phase the phase
+     * @param pom the POM file, may be null
+     * @param nanos the duration of the phase in nanoseconds
+     */
+    default void phaseEnded(Phase phase, Path pom, long nanos) {
+    }
+
+    /**
+     * Bytes were read from a POM file
+     *
+     * @param pom the POM file
+     * @param bytes the number of bytes read
+     */
+    default void bytesRead(Path pom, long bytes) {
+    }
+
+    /**
+     * Bytes were written to a POM file
+     *
+     * @param pom the POM file
+     * @param bytes the number of bytes written
+     */
+    default void bytesWritten(Path pom, long bytes) {
+    }
+
+    /**
+     * Elements were processed by a phase: the XML elements of a parsed or formatted document, or the models merged
+     *
+     * @param phase the phase
+     * @param pom the POM file, may be null
+     * @param count the number of elements
+     */
+    default void elementsProcessed(Phase phase, Path pom, int count) {
+    }
+
+    /**
+     * Elements of a document were added, removed or changed by a phase
+     *
+     * @param phase the phase
+     * @param pom the POM file, may be null
+     * @param count the number of mutations
+     */
+    default void elementsMutated(Phase phase, Path pom, int count) {
+    }
+}
@@ -0,0 +1,180 @@
+package io.fabric8.maven;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.filter.Filters;
+import org.jdom2.util.IteratorIterable;
+
+/**
+ * The {@link ModelIOListener}s notified of every read, write, merge and format
+ */
+public final class ModelIOListeners {
+
+    private static final List<ModelIOListener> registered = new ArrayList<>();
+
+    /**
+     * Whether the jdk.jfr module is available, as it may be left out of a custom runtime image
+     */
+    private static final boolean JFR_AVAILABLE = isJfrAvailable();
+
+    /**
+     * The registered listeners as a single one, or null if there are none, so that calls cost nothing without them
+     */
+    private static volatile ModelIOListener global;
+
+    private ModelIOListeners() {
+        throw new IllegalAccessError("Utility class");
+    }
+
+    /**
+     * Register a listener notified of every call, until it is unregistered
+     *
+     * @param listener the listener
+     */
+    public static synchronized void register(ModelIOListener listener) {
+        registered.add(listener);
+        global = combine(registered);
+    }
+
+    /**
+     * Unregister a listener
+     *
+     * @param listener the listener
+     * @return true if the listener was registered
+     */
+    public static synchronized boolean unregister(ModelIOListener listener) {
+        boolean removed = registered.remove(listener);
+        global = combine(registered);
+        return removed;
+    }
+
+    /**
+     * Combine the listener of a call with the registered ones, and with the recording of Java Flight Recorder events
+     * while a recording enables them
+     *
+     * @param listener the listener of the call, may be null
+     * @return the listener to notify, or null if there is none
+     */
+    public static ModelIOListener of(ModelIOListener listener) {
+        ModelIOListener current = global;
+        if (JFR_AVAILABLE && JfrModelIOListener.isRecording()) {
+            current = combine(current, JfrModelIOListener.INSTANCE);
+        }
+        return combine(current, listener);
+    }
+
+    /**
+     * @return the time the phase started, for {@link #ended}
+     */
+    static long started(ModelIOListener listener, ModelIOListener.Phase phase, Path pom) {
+        if (listener == null) {
+            return 0L;
+        }
+        listener.phaseStarted(phase, pom);
+        return System.nanoTime();
+    }
+
+    static void ended(ModelIOListener listener, ModelIOListener.Phase phase, Path pom, long start) {
+        if (listener != null) {
+            listener.phaseEnded(phase, pom, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @return the number of elements of the document, only counted when there is a listener to notify
+     */
+    static int countElements(Document document) {
+        IteratorIterable<Element> elements = document.getDescendants(Filters.element());
+        int count = 0;
+        while (elements.hasNext()) {
+            elements.next();
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static ModelIOListener combine(ModelIOListener first, ModelIOListener second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return new Composite(new ModelIOListener[] { first, second });
+    }
+
+    private static ModelIOListener combine(List<ModelIOListener> listeners) {
+        switch (listeners.size()) {
+            case 0:
+                return null;
+            case 1:
+                return listeners.get(0);
+            default:
+                return new Composite(listeners.toArray(new ModelIOListener[0]));
+        }
+    }
+
+    private static final class Composite implements ModelIOListener {
+
+        private final ModelIOListener[] listeners;
+
+        private Composite(ModelIOListener[] listeners) {
+            this.listeners = listeners;
+        }
+
+        @Override
+        public void phaseStarted(Phase phase, Path pom) {
+            for (ModelIOListener listener : listeners) {
+                listener.phaseStarted(phase, pom);
+            }
+        }
+
+        @Override
+        public void phaseEnded(Phase phase, Path pom, long nanos) {
+            for (ModelIOListener listener : listeners) {
+                listener.phaseEnded(phase, pom, nanos);
+            }
+        }
+
+        @Override
+        public void bytesRead(Path pom, long bytes) {
+            for (ModelIOListener listener : listeners) {
+                listener.bytesRead(pom, bytes);
+            }
+        }
+
+        @Override
+        public void bytesWritten(Path pom, long bytes) {
+            for (ModelIOListener listener : listeners) {
+                listener.bytesWritten(pom, bytes);
+            }
+        }
+
+        @Override
+        public void elementsProcessed(Phase phase, Path pom, int count) {
+            for (ModelIOListener listener : listeners) {
+                listener.elementsProcessed(phase, pom, count);
+            }
+        }
+
+        @Override
+        public void elementsMutated(Phase phase, Path pom, int count) {
+            for (ModelIOListener listener : listeners) {
+                listener.elementsMutated(phase, pom, count);
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package io.fabric8.maven;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link ModelIOListener} keeping the totals of every phase in memory, along with the POM file for which each phase
+ * was the slowest:
+ *
+ * <pre>
+ * ModelIOMetrics metrics = new ModelIOMetrics();
+ * ModelIOListeners.register(metrics);
+ * ...
+ * ModelIOMetrics.PhaseMetrics update = metrics.getPhase(ModelIOListener.Phase.UPDATE);
+ * System.out.println(update.getTotalNanos() / update.getCount() + "ns, slowest: " + update.getSlowestPom());
+ * </pre>
+ * <p>
+ * It is thread-safe, and {@link #toString()} prints a summary of the phases that ran.
+ */
+public class ModelIOMetrics implements ModelIOListener {
+
+    private final Map<Phase, Counters> phases = new EnumMap<>(Phase.class);
+
+    private final LongAdder bytesRead = new LongAdder();
+
+    private final LongAdder bytesWritten = new LongAdder();
+
+    public ModelIOMetrics() {
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new Counters());
+        }
+    }
+
+    @Override
+    public void phaseEnded(Phase phase, Path pom, long nanos) {
+        Counters counters = phases.get(phase);
+        counters.count.increment();
+        counters.totalNanos.add(nanos);
+        synchronized (counters) {
+            if (nanos > counters.maxNanos) {
+                counters.maxNanos = nanos;
+                counters.slowestPom = pom;
+            }
+        }
+    }
+
+    @Override
+    public void bytesRead(Path pom, long bytes) {
+        bytesRead.add(bytes);
+    }
+
+    @Override
+    public void bytesWritten(Path pom, long bytes) {
+        bytesWritten.add(bytes);
+    }
+
+    @Override
+    public void elementsProcessed(Phase phase, Path pom, int count) {
+        phases.get(phase).elements.add(count);
+    }
+
+    @Override
+    public void elementsMutated(Phase phase, Path pom, int count) {
+        phases.get(phase).mutations.add(count);
+    }
+
+    /**
+     * @param phase the phase
+     * @return the metrics of the phase so far
+     */
+    public PhaseMetrics getPhase(Phase phase) {
+        Counters counters = phases.get(phase);
+        synchronized (counters) {
+            return new PhaseMetrics(phase, counters.count.sum(), counters.totalNanos.sum(), counters.maxNanos,
+                    counters.slowestPom, counters.elements.sum(), counters.mutations.sum());
+        }
+    }
+
+    /**
+     * @return the number of bytes read from POM files
+     */
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    /**
+     * @return the number of bytes written to POM files
+     */
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    /**
+     * Reset all the metrics
+     */
+    public void reset() {
+        for (Counters counters : phases.values()) {
+            synchronized (counters) {
+                counters.count.reset();
+                counters.totalNanos.reset();
+                counters.elements.reset();
+                counters.mutations.reset();
+                counters.maxNanos = 0L;
+                counters.slowestPom = null;
+            }
+        }
+        bytesRead.reset();
+        bytesWritten.reset();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("bytes read: ").append(getBytesRead())
+                .append(", bytes written: ").append(getBytesWritten());
+        for (Phase phase : Phase.values()) {
+            PhaseMetrics metrics = getPhase(phase);
+            if (metrics.getCount() > 0) {
+                sb.append(System.lineSeparator()).append(metrics);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static final class Counters {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAdder elements = new LongAdder();
+
+        private final LongAdder mutations = new LongAdder();
+
+        private long maxNanos;
+
+        private Path slowestPom;
+    }
+
+    /**
+     * A snapshot of the metrics of a phase
+     */
+    public static final class PhaseMetrics {
+
+        private final Phase phase;
+
+        private final long count;
+
+        private final long totalNanos;
+
+        private final long maxNanos;
+
+        private final Path slowestPom;
+
+        private final long elements;
+
+        private final long mutations;
+
+        private PhaseMetrics(Phase phase, long count, long totalNanos, long maxNanos, Path slowestPom, long elements,
+                long mutations) {
+            this.phase = phase;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.slowestPom = slowestPom;
+            this.elements = elements;
+            this.mutations = mutations;
+        }
+
+        public Phase getPhase() {
+            return phase;
+        }
+
+        /**
+         * @return the number of times the phase ended
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the total duration of the phase in nanoseconds
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return the longest duration of the phase in nanoseconds
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * @return the POM file of the longest duration, null if it was not known
+         */
+        public Path getSlowestPom() {
+            return slowestPom;
+        }
+
+        /**
+         * @return the number of elements processed by the phase
+         */
+        public long getElements() {
+            return elements;
+        }
+
+        /**
+         * @return the number of elements mutated by the phase
+         */
+        public long getMutations() {
+            return mutations;
+        }
+
+        @Override
+        public String toString() {
+            return phase + ": count=" + count + ", totalNanos=" + totalNanos + ", maxNanos=" + maxNanos
+                    + ", slowestPom=" + slowestPom + ", elements=" + elements + ", mutations=" + mutations;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package io.fabric8.maven;
+
+import java.nio.file.Path;
+
+import org.apache.maven.model.Model;
+
+/**
+ * The outcome of reading a single POM file as part of {@link Maven#readModels}, holding either the {@link Model} or
+ * the exception that prevented it from being read.
+ */
+public final class ModelReadResult {
+
+    private final Path path;
+
+    private final Model model;
+
+    private final RuntimeException error;
+
+    private ModelReadResult(Path path, Model model, RuntimeException error) {
+        this.path = path;
+        this.model = model;
+        this.error = error;
+    }
+
+    static ModelReadResult success(Path path, Model model) {
+        return new ModelReadResult(path, model, null);
+    }
+
+    static ModelReadResult failure(Path path, RuntimeException error) {
+        return new ModelReadResult(path, null, error);
+    }
+
+    /**
+     * @return the path that was read
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return true if the model was read
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return the maven {@link Model}, or null if it could not be read
+     */
+    public Model getModel() {
+        return model;
+    }
+
+    /**
+     * @return the exception thrown while reading the model, or null if it was read
+     */
+    public RuntimeException getError() {
+        return error;
+    }
+
+    /**
+     * @return the maven {@link Model}
+     * @throws RuntimeException the exception thrown while reading the model
+     */
+    public Model getModelOrThrow() {
+        if (error != null) {
+            throw error;
+        }
+        return model;
+    }
+
+    @Override
+    public String toString() {
+        return "ModelReadResult{path=" + path + (error == null ? "" : ", error=" + error) + "}";
+    }
+}
@@ -0,0 +1,256 @@
+package io.fabric8.maven;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.apache.maven.model.Model;
+import org.jdom2.Document;
+
+/**
+ * A POM file read once and kept in memory for a read-modify-write cycle.
+ * <p>
+ * The file contents are parsed into both the Maven {@link Model} and the XML document used to preserve the original
+ * formatting, and the indentation is detected at the same time, so writing the changes back does not read the file
+ * again:
+ *
+ * <pre>
+ * PomDocument pom = PomDocument.read(path);
+ * pom.getModel().setVersion("2.0");
+ * pom.write();
+ * </pre>
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class PomDocument {
+
+    private final Path path;
+
+    private final Model model;
+
+    private final Document document;
+
+    private final String indentation;
+
+    /**
+     * The contents of the file as last read or written by this document
+     */
+    private byte[] contents;
+
+    /**
+     * Records the original source when the first write splices unchanged content
+     */
+    private SplicingProcessor splicer;
+
+    /**
+     * Whether the document was already updated from the model, after which the original source can't be recorded
+     */
+    private boolean updated;
+
+    private PomDocument(Path path, byte[] contents, Model model, Document document, String indentation) {
+        this.path = path;
+        this.contents = contents;
+        this.model = model;
+        this.document = document;
+        this.indentation = indentation;
+    }
+
+    /**
+     * Read the {@link Path} as a {@link PomDocument}
+     *
+     * @param pom a path to a pom.xml file
+     * @return the {@link PomDocument}
+     */
+    public static PomDocument read(Path pom) {
+        byte[] contents;
+        try {
+            contents = Files.readAllBytes(pom);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read POM file: " + pom, e);
+        }
+        String source = Maven.decodeSource(contents, pom);
+        Model model = Maven.readModel(new StringReader(source), ReadOptions.DEFAULT, pom, contents.length,
+                ModelIOListeners.of(null));
+        model.setPomFile(pom.toFile());
+        Document document = Maven.parseDocument(source, pom);
+        return new PomDocument(pom, contents, model, document, XMLFormat.findIndentation(source));
+    }
+
+    /**
+     * @return the path this document was read from
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return the maven {@link Model}, changes to it are applied on {@link #write()}
+     */
+    public Model getModel() {
+        return model;
+    }
+
+    /**
+     * @return the indentation detected in the POM file
+     */
+    public String getIndentation() {
+        return indentation;
+    }
+
+    Document getDocument() {
+        return document;
+    }
+
+    /**
+     * Write the Model back to the file it was read from
+     */
+    public void write() {
+        write((XMLFormat) null);
+    }
+
+    /**
+     * Write the Model back to the file it was read from using the specified {@link XMLFormat}
+     *
+     * @param format the XML format to use
+     */
+    public void write(XMLFormat format) {
+        write(format, WriteOptions.DEFAULT);
+    }
+
+    /**
+     * Write the Model back to the file it was read from using the specified {@link XMLFormat} and {@link WriteOptions}
+     *
+     * @param format the XML format to use, may be null
+     * @param options how to write the file
+     */
+    public void write(XMLFormat format, WriteOptions options) {
+        byte[] rendered = render(format, ModelIOListeners.of(options.getListener()));
+        Maven.writeBytes(path, rendered, options);
+        contents = rendered;
+    }
+
+    /**
+     * Write the Model back to the file it was read from only if that changes its contents
+     *
+     * @return true if the file was written, false if it already had the same contents
+     * @see #writeIfChanged(XMLFormat)
+     */
+    public boolean writeIfChanged() {
+        return writeIfChanged(null);
+    }
+
+    /**
+     * Write the Model back to the file it was read from using the specified {@link XMLFormat} only if that changes its
+     * contents.
+     * <p>
+     * The contents are compared with the ones this document last read or wrote, so the file is not read again.
+     *
+     * @param format the XML format to use
+     * @return true if the file was written, false if it already had the same contents
+     */
+    public boolean writeIfChanged(XMLFormat format) {
+        return writeIfChanged(format, WriteOptions.DEFAULT);
+    }
+
+    /**
+     * Write the Model back to the file it was read from using the specified {@link XMLFormat} and {@link WriteOptions}
+     * only if that changes its contents
+     *
+     * @param format the XML format to use, may be null
+     * @param options how to write the file
+     * @return true if the file was written, false if it already had the same contents
+     * @see #writeIfChanged(XMLFormat)
+     */
+    public boolean writeIfChanged(XMLFormat format, WriteOptions options) {
+        byte[] rendered = render(format, ModelIOListeners.of(options.getListener()));
+        if (Arrays.equals(contents, rendered)) {
+            return false;
+        }
+        Maven.writeBytes(path, rendered, options);
+        contents = rendered;
+        return true;
+    }
+
+    /**
+     * Render the Model as the new contents of the file, which the caller is expected to write, then report with
+     * {@link #stored(byte[])}
+     *
+     * @param format the XML format to use, may be null
+     * @param listener the listener to notify, may be null
+     * @return the contents to write
+     */
+    byte[] render(XMLFormat format, ModelIOListener listener) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(contents.length);
+        write(Maven.utf8Writer(out), format, listener);
+        return out.toByteArray();
+    }
+
+    /**
+     * Record the contents rendered by {@link #render(XMLFormat, ModelIOListener)} once they were stored in the file
+     *
+     * @param rendered the contents of the file
+     */
+    void stored(byte[] rendered) {
+        contents = rendered;
+    }
+
+    private SplicingProcessor splicer(XMLFormat format) {
+        if (format == null || !format.isSpliceUnchangedContent()) {
+            return null;
+        }
+        if (splicer == null && !updated) {
+            splicer = SplicingProcessor.record(Maven.decodeSource(contents, path), document);
+        }
+        return splicer;
+    }
+
+    /**
+     * Write the Model to the {@link Writer}
+     *
+     * @param writer the writer to write the model to
+     */
+    public void write(Writer writer) {
+        write(writer, null);
+    }
+
+    /**
+     * Write the Model to the {@link Writer} using the specified {@link XMLFormat}
+     *
+     * @param writer the writer to write the model to
+     * @param format the XML format to use
+     */
+    public void write(Writer writer, XMLFormat format) {
+        write(writer, format, ModelIOListeners.of(null));
+    }
+
+    private void write(Writer writer, XMLFormat format, ModelIOListener listener) {
+        SplicingProcessor processor = splicer(format);
+        updated = true;
+        Maven.writeModel(model, document, indentation, processor, () -> writer, format, path, listener);
+    }
+
+    /**
+     * Write the Model to the {@link OutputStream} in UTF-8
+     *
+     * @param outputStream the stream to write the model to, closed once written
+     */
+    public void write(OutputStream outputStream) {
+        write(outputStream, null);
+    }
+
+    /**
+     * Write the Model to the {@link OutputStream} in UTF-8 using the specified {@link XMLFormat}
+     *
+     * @param outputStream the stream to write the model to, closed once written
+     * @param format the XML format to use
+     */
+    public void write(OutputStream outputStream, XMLFormat format) {
+        write(Maven.utf8Writer(outputStream), format);
+    }
+}
@@ -0,0 +1,277 @@
+package io.fabric8.maven;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.codehaus.plexus.util.xml.pull.XmlPullParser;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * The coordinates, parent and modules of a POM file, read without building its whole {@link Model}.
+ * <p>
+ * Reading stops as soon as the requested fields have been seen, or at the first of the sections that come after them
+ * in the conventional order of a POM file ({@code dependencyManagement}, {@code dependencies}, {@code repositories},
+ * {@code pluginRepositories}, {@code build}, {@code reporting} and {@code profiles}), so those sections are usually
+ * never read at all. A field that is only declared after one of those sections is reported as missing; use
+ * {@link Maven#readModel(Path)} for such POM files.
+ * <p>
+ * Unlike {@link Maven#readModel(Path)}, unknown elements are ignored and the POM file is not validated.
+ */
+public final class PomSummary {
+
+    /**
+     * The fields a {@link PomSummary} can be requested to read
+     */
+    public enum Field {
+        GROUP_ID("groupId"),
+        ARTIFACT_ID("artifactId"),
+        VERSION("version"),
+        PACKAGING("packaging"),
+        PARENT("parent"),
+        MODULES("modules");
+
+        private final String element;
+
+        Field(String element) {
+            this.element = element;
+        }
+
+        private static Field of(String element) {
+            for (Field field : values()) {
+                if (field.element.equals(element)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final Set<String> END_OF_HEADER = new HashSet<>(Arrays.asList("dependencyManagement", "dependencies",
+            "repositories", "pluginRepositories", "build", "reporting", "profiles"));
+
+    private final Path path;
+
+    private String groupId;
+
+    private String artifactId;
+
+    private String version;
+
+    private String packaging;
+
+    private Parent parent;
+
+    private List<String> modules = Collections.emptyList();
+
+    private PomSummary(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Read all the fields of the summary of the {@link Path}
+     *
+     * @param pom a path to a pom.xml file
+     * @return the summary of the POM file
+     */
+    public static PomSummary read(Path pom) {
+        return read(pom, EnumSet.allOf(Field.class));
+    }
+
+    /**
+     * Read the requested fields of the summary of the {@link Path}
+     *
+     * @param pom a path to a pom.xml file
+     * @param fields the fields to read, the others are left unset
+     * @return the summary of the POM file
+     */
+    public static PomSummary read(Path pom, Set<Field> fields) {
+        try (BufferedReader br = Files.newBufferedReader(pom)) {
+            return read(pom, br, fields);
+        } catch (IOException io) {
+            throw new UncheckedIOException("Error while reading pom.xml", io);
+        }
+    }
+
+    /**
+     * Read the requested fields of the summary of the contents of a POM file
+     *
+     * @param reader a Reader on the contents of a pom file, which is not closed
+     * @param fields the fields to read, the others are left unset
+     * @return the summary of the POM file
+     */
+    public static PomSummary read(Reader reader, Set<Field> fields) {
+        return read(null, reader, fields);
+    }
+
+    private static PomSummary read(Path pom, Reader reader, Set<Field> fields) {
+        PomSummary summary = new PomSummary(pom);
+        try {
+            XmlPullParser parser = XMLParsers.pullParser(reader);
+            try {
+                summary.read(parser, fields.isEmpty() ? EnumSet.noneOf(Field.class) : EnumSet.copyOf(fields));
+            } finally {
+                // Don't keep the reader reachable from the parser of the thread
+                parser.setInput(null);
+            }
+        } catch (IOException io) {
+            throw new UncheckedIOException("Error while reading pom.xml", io);
+        } catch (XmlPullParserException e) {
+            throw new RuntimeException("Error while parsing pom.xml", e);
+        }
+        return summary;
+    }
+
+    private void read(XmlPullParser parser, Set<Field> remaining) throws XmlPullParserException, IOException {
+        if (parser.nextTag() != XmlPullParser.START_TAG || !"project".equals(parser.getName())) {
+            throw new XmlPullParserException("Expected root element 'project' but found '" + parser.getName() + "'",
+                    parser, null);
+        }
+        while (!remaining.isEmpty() && parser.nextTag() == XmlPullParser.START_TAG) {
+            String name = parser.getName();
+            if (END_OF_HEADER.contains(name)) {
+                return;
+            }
+            Field field = Field.of(name);
+            if (field == null || !remaining.remove(field)) {
+                skipElement(parser);
+                continue;
+            }
+            switch (field) {
+                case GROUP_ID:
+                    groupId = parser.nextText().trim();
+                    break;
+                case ARTIFACT_ID:
+                    artifactId = parser.nextText().trim();
+                    break;
+                case VERSION:
+                    version = parser.nextText().trim();
+                    break;
+                case PACKAGING:
+                    packaging = parser.nextText().trim();
+                    break;
+                case PARENT:
+                    parent = readParent(parser);
+                    break;
+                case MODULES:
+                    modules = readModules(parser);
+                    break;
+            }
+        }
+    }
+
+    private static Parent readParent(XmlPullParser parser) throws XmlPullParserException, IOException {
+        Parent parent = new Parent();
+        while (parser.nextTag() == XmlPullParser.START_TAG) {
+            switch (parser.getName()) {
+                case "groupId":
+                    parent.setGroupId(parser.nextText().trim());
+                    break;
+                case "artifactId":
+                    parent.setArtifactId(parser.nextText().trim());
+                    break;
+                case "version":
+                    parent.setVersion(parser.nextText().trim());
+                    break;
+                case "relativePath":
+                    parent.setRelativePath(parser.nextText().trim());
+                    break;
+                default:
+                    skipElement(parser);
+            }
+        }
+        return parent;
+    }
+
+    private static List<String> readModules(XmlPullParser parser) throws XmlPullParserException, IOException {
+        List<String> modules = new ArrayList<>();
+        while (parser.nextTag() == XmlPullParser.START_TAG) {
+            if ("module".equals(parser.getName())) {
+                modules.add(parser.nextText().trim());
+            } else {
+                skipElement(parser);
+            }
+        }
+        return Collections.unmodifiableList(modules);
+    }
+
+    /**
+     * Skip the current element, leaving the reader on its end tag
+     */
+    private static void skipElement(XmlPullParser parser) throws XmlPullParserException, IOException {
+        for (int depth = 1; depth > 0;) {
+            int event = parser.next();
+            if (event == XmlPullParser.START_TAG) {
+                depth++;
+            } else if (event == XmlPullParser.END_TAG) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * @return the path that was read, or null if the summary was read from a {@link Reader}
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return the groupId declared in the POM file, or null if it is inherited from the parent
+     */
+    public String getGroupId() {
+        return groupId;
+    }
+
+    /**
+     * @return the artifactId declared in the POM file
+     */
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    /**
+     * @return the version declared in the POM file, or null if it is inherited from the parent
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the packaging declared in the POM file, or null if it uses the default {@code jar} packaging
+     */
+    public String getPackaging() {
+        return packaging;
+    }
+
+    /**
+     * @return the parent of the POM file, or null if it has none
+     */
+    public Parent getParent() {
+        return parent;
+    }
+
+    /**
+     * @return the modules of the POM file, never null
+     */
+    public List<String> getModules() {
+        return modules;
+    }
+
+    @Override
+    public String toString() {
+        return "PomSummary{" + groupId + ":" + artifactId + ":" + version + (path == null ? "" : ", path=" + path) + "}";
+    }
+}
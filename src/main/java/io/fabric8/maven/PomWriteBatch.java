@@ -0,0 +1,195 @@
+package io.fabric8.maven;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.model.Model;
+
+/**
+ * Atomic writes of many POM files, applied together when the batch is committed.
+ * <p>
+ * Each write renders the POM file into a hidden temporary file next to it, without syncing it. {@link #commit()}
+ * syncs them all when the batch was created with {@link WriteOptions#isSync()}, then moves each one over its POM file
+ * and syncs every directory once. A process killed before the commit leaves all the POM files untouched, and one
+ * killed during the commit leaves each of them with either its old or its new contents:
+ *
+ * <pre>
+ * try (PomWriteBatch batch = PomWriteBatch.create(WriteOptions.builder().sync(true).build())) {
+ *     for (PomDocument pom : poms) {
+ *         pom.getModel().setVersion("2.0");
+ *         batch.write(pom);
+ *     }
+ *     batch.commit();
+ * }
+ * </pre>
+ * <p>
+ * Writes are thread-safe, so the POM files can be rendered in parallel. Closing a batch that was not committed deletes
+ * its temporary files.
+ */
+public final class PomWriteBatch implements Closeable {
+
+    private final boolean sync;
+
+    private final ModelIOListener listener;
+
+    /**
+     * The temporary file of each POM file to replace, the last write of a POM file wins
+     */
+    private final Map<Path, Pending> pending = new LinkedHashMap<>();
+
+    private PomWriteBatch(boolean sync, ModelIOListener listener) {
+        this.sync = sync;
+        this.listener = listener;
+    }
+
+    /**
+     * Create a new batch. Writes are always atomic, whatever {@link WriteOptions#isAtomic()} says.
+     *
+     * @param options whether the POM files are synced on commit, and the listener to notify
+     * @return a new batch
+     */
+    public static PomWriteBatch create(WriteOptions options) {
+        return new PomWriteBatch(options.isSync(), ModelIOListeners.of(options.getListener()));
+    }
+
+    /**
+     * Write the Model of the document back to the file it was read from when the batch is committed
+     *
+     * @param document the document to write
+     */
+    public void write(PomDocument document) {
+        write(document, null);
+    }
+
+    /**
+     * Write the Model of the document back to the file it was read from using the specified {@link XMLFormat} when
+     * the batch is committed
+     *
+     * @param document the document to write
+     * @param format the XML format to use
+     */
+    public void write(PomDocument document, XMLFormat format) {
+        write(document.getPath(), document.render(format, listener), document);
+    }
+
+    /**
+     * Write the Model back to the provided {@link Path} when the batch is committed
+     *
+     * @param model the model to write
+     * @param pom the path to the POM file
+     */
+    public void writeModel(Model model, Path pom) {
+        writeModel(model, pom, null);
+    }
+
+    /**
+     * Write the Model back to the provided {@link Path} using the specified {@link XMLFormat} when the batch is
+     * committed
+     *
+     * @param model the model to write
+     * @param pom the path to the POM file
+     * @param format the XML format to use
+     */
+    public void writeModel(Model model, Path pom, XMLFormat format) {
+        write(pom, Maven.writeModelToBytes(model, pom, format, listener), null);
+    }
+
+    private void write(Path pom, byte[] contents, PomDocument document) {
+        Path target = AtomicFiles.target(pom);
+        Path temp = AtomicFiles.writeTemporary(target, contents, false);
+        if (listener != null) {
+            listener.bytesWritten(pom, contents.length);
+        }
+        Pending previous;
+        synchronized (pending) {
+            previous = pending.put(target, new Pending(temp, document, contents));
+        }
+        if (previous != null) {
+            AtomicFiles.delete(previous.temp);
+        }
+    }
+
+    /**
+     * @return the number of POM files written to the batch and not committed yet
+     */
+    public int size() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Replace every POM file written to the batch by its new contents, in the order they were written
+     */
+    public void commit() {
+        List<Map.Entry<Path, Pending>> entries;
+        synchronized (pending) {
+            entries = new ArrayList<>(pending.entrySet());
+        }
+        long start = ModelIOListeners.started(listener, ModelIOListener.Phase.STORE, null);
+        if (sync) {
+            for (Map.Entry<Path, Pending> entry : entries) {
+                AtomicFiles.sync(entry.getValue().temp);
+            }
+        }
+        Set<Path> directories = new LinkedHashSet<>();
+        for (Map.Entry<Path, Pending> entry : entries) {
+            Pending write = entry.getValue();
+            AtomicFiles.move(write.temp, entry.getKey());
+            synchronized (pending) {
+                pending.remove(entry.getKey());
+            }
+            // The document only knows its new contents once they replaced the file
+            if (write.document != null) {
+                write.document.stored(write.contents);
+            }
+            directories.add(entry.getKey().getParent());
+        }
+        if (sync) {
+            for (Path directory : directories) {
+                AtomicFiles.syncDirectory(directory);
+            }
+        }
+        ModelIOListeners.ended(listener, ModelIOListener.Phase.STORE, null, start);
+    }
+
+    /**
+     * Delete the temporary files of the POM files that were not committed
+     */
+    @Override
+    public void close() {
+        synchronized (pending) {
+            for (Pending write : pending.values()) {
+                AtomicFiles.delete(write.temp);
+            }
+            pending.clear();
+        }
+    }
+
+    /**
+     * A write that was not committed yet
+     */
+    private static final class Pending {
+
+        private final Path temp;
+
+        /**
+         * The document that was written, null for a model
+         */
+        private final PomDocument document;
+
+        private final byte[] contents;
+
+        private Pending(Path temp, PomDocument document, byte[] contents) {
+            this.temp = temp;
+            this.document = document;
+            this.contents = contents;
+        }
+    }
+}
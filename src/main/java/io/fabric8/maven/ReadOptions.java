@@ -0,0 +1,124 @@
+package io.fabric8.maven;
+
+/**
+ * Options for reading a POM file as a {@link org.apache.maven.model.Model}
+ */
+public class ReadOptions {
+
+    public static final ReadOptions DEFAULT = ReadOptions.builder().build();
+
+    private final Parser parser;
+
+    private final boolean trackLocations;
+
+    private final ModelIOListener listener;
+
+    private ReadOptions(Builder builder) {
+        this.parser = builder.parser;
+        this.trackLocations = builder.trackLocations;
+        this.listener = builder.listener;
+    }
+
+    /**
+     * @return the parser used to read the POM file
+     */
+    public Parser getParser() {
+        return parser;
+    }
+
+    /**
+     * @return true if the {@link org.apache.maven.model.InputLocation} of every field is recorded
+     */
+    public boolean isTrackLocations() {
+        return trackLocations;
+    }
+
+    /**
+     * @return the listener notified of this call in addition to the registered ones, may be null
+     */
+    public ModelIOListener getListener() {
+        return listener;
+    }
+
+    public enum Parser {
+        /**
+         * The parser generated by Maven itself, which also resolves the HTML entities (such as {@code &nbsp;})
+         * not declared in the POM file.
+         */
+        XPP3,
+
+        /**
+         * A streaming parser built on the StAX implementation of the JDK, which fills the model directly and allocates
+         * less than {@link #XPP3} on large POM files and bulk reads, for about the same CPU time. Only the predefined
+         * XML entities are resolved.
+         */
+        STAX;
+    }
+
+    /**
+     * Create a new builder
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create a new builder with the given {@link ReadOptions}
+     *
+     * @param options the options
+     * @return a new builder
+     */
+    public static Builder builder(ReadOptions options) {
+        return new Builder()
+                .parser(options.getParser())
+                .trackLocations(options.isTrackLocations())
+                .listener(options.getListener());
+    }
+
+    public static class Builder {
+        private Parser parser = Parser.XPP3;
+
+        private boolean trackLocations = true;
+
+        private ModelIOListener listener;
+
+        Builder() {
+        }
+
+        public Builder parser(Parser parser) {
+            this.parser = parser;
+            return this;
+        }
+
+        /**
+         * Record the {@link org.apache.maven.model.InputLocation} of every field, which roughly doubles the number of
+         * objects of a model. Without it, only the packaging keeps a location, without line and column numbers with
+         * the {@link Parser#XPP3} parser, so that {@link io.fabric8.maven.merge.SmartModelMerger} can still tell
+         * whether it was declared.
+         *
+         * @param trackLocations false to only keep the values of the model
+         * @return this builder
+         */
+        public Builder trackLocations(boolean trackLocations) {
+            this.trackLocations = trackLocations;
+            return this;
+        }
+
+        /**
+         * Notify a listener of this call, in addition to the ones registered with {@link ModelIOListeners}
+         *
+         * @param listener the listener, may be null
+         * @return this builder
+         */
+        public Builder listener(ModelIOListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        public ReadOptions build() {
+            return new ReadOptions(this);
+        }
+    }
+}
@@ -1,15 +1,229 @@
 package io.fabric8.maven;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
+/**
+ * {@link Properties} kept sorted by key, so they are written in a stable order.
+ * <p>
+ * The entries are stored in a {@link ConcurrentSkipListMap} instead of the map of {@link Properties}: the views are
+ * live and already sorted, so iterating doesn't copy the keys, and reads never lock, which lets many threads share a
+ * {@link org.apache.maven.model.Model}. The entries of {@link #entrySet()} don't support {@link Map.Entry#setValue}.
+ */
 public class SortedProperties extends Properties {
 
     private static final long serialVersionUID = 1L;
 
+    private transient ConcurrentNavigableMap<Object, Object> map = new ConcurrentSkipListMap<>();
+
+    public SortedProperties() {
+    }
+
+    /**
+     * @param defaults the properties looked up by {@link #getProperty(String)} for the missing keys
+     */
+    public SortedProperties(Properties defaults) {
+        super(defaults);
+    }
+
+    @Override
+    public Object setProperty(String key, String value) {
+        return put(key, value);
+    }
+
+    @Override
+    public String getProperty(String key) {
+        Object value = map.get(key);
+        String property = value instanceof String ? (String) value : null;
+        return property == null && defaults != null ? defaults.getProperty(key) : property;
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public Enumeration<Object> keys() {
+        return Collections.enumeration(map.keySet());
+    }
+
+    @Override
+    public Enumeration<Object> elements() {
+        return Collections.enumeration(map.values());
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return map.containsValue(value);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return map.containsValue(value);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        return map.get(key);
+    }
+
+    @Override
+    public Object put(Object key, Object value) {
+        return map.put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return map.remove(key);
+    }
+
+    @Override
+    public void putAll(Map<?, ?> t) {
+        map.putAll(t);
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public String toString() {
+        return map.toString();
+    }
+
     @Override
     public Set<Object> keySet() {
-        return new TreeSet<Object>(super.keySet());
+        return map.keySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return map.values();
+    }
+
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        return map.entrySet();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return map.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return map.hashCode();
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        return map.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super Object, ? super Object> action) {
+        map.forEach(action);
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super Object, ? super Object, ?> function) {
+        map.replaceAll(function);
+    }
+
+    @Override
+    public Object putIfAbsent(Object key, Object value) {
+        return map.putIfAbsent(key, value);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        return map.remove(key, value);
+    }
+
+    @Override
+    public boolean replace(Object key, Object oldValue, Object newValue) {
+        return map.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public Object replace(Object key, Object value) {
+        return map.replace(key, value);
+    }
+
+    @Override
+    public Object computeIfAbsent(Object key, Function<? super Object, ?> mappingFunction) {
+        return map.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public Object computeIfPresent(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        return map.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public Object compute(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        return map.compute(key, remappingFunction);
+    }
+
+    @Override
+    public Object merge(Object key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        return map.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public Object clone() {
+        SortedProperties clone = (SortedProperties) super.clone();
+        clone.map = new ConcurrentSkipListMap<>(map);
+        return clone;
+    }
+
+    /**
+     * Serialize a copy holding the entries in the table of {@link Properties}, as they were before they moved to the
+     * skip list, so that the serialized form stays the same across versions
+     */
+    private Object writeReplace() {
+        SortedProperties copy = new SortedProperties(defaults);
+        for (Map.Entry<Object, Object> entry : map.entrySet()) {
+            copy.putInTable(entry.getKey(), entry.getValue());
+        }
+        return copy;
+    }
+
+    private void putInTable(Object key, Object value) {
+        super.put(key, value);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // Move the entries read into the table of Properties to the skip list
+        map = new ConcurrentSkipListMap<>();
+        for (Map.Entry<Object, Object> entry : super.entrySet()) {
+            map.put(entry.getKey(), entry.getValue());
+        }
+        super.clear();
     }
 }
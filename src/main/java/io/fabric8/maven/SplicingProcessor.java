@@ -0,0 +1,489 @@
+package io.fabric8.maven;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jdom2.Attribute;
+import org.jdom2.CDATA;
+import org.jdom2.Comment;
+import org.jdom2.Content;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.EntityRef;
+import org.jdom2.Namespace;
+import org.jdom2.ProcessingInstruction;
+import org.jdom2.Text;
+import org.jdom2.output.Format;
+import org.jdom2.output.support.AbstractXMLOutputProcessor;
+import org.jdom2.output.support.FormatStack;
+import org.jdom2.util.NamespaceStack;
+
+/**
+ * Outputs a document by copying the original source of every node that did not change since it was parsed, so only
+ * the changed nodes are printed.
+ * <p>
+ * The source is scanned once, before the document is updated, to record where each node starts and ends along with a
+ * snapshot of its contents. Unchanged elements are then copied verbatim, preserving their formatting exactly, while
+ * changed elements keep their original tags and have their contents reconciled node by node.
+ */
+final class SplicingProcessor extends AbstractXMLOutputProcessor {
+
+    private final String source;
+
+    private final Content[] documentContent;
+
+    private final Map<Content, Span> spans;
+
+    private SplicingProcessor(String source, Content[] documentContent, Map<Content, Span> spans) {
+        this.source = source;
+        this.documentContent = documentContent;
+        this.spans = spans;
+    }
+
+    /**
+     * Record the location of the nodes of a document in the source it was parsed from. Must be called before the
+     * document is modified.
+     *
+     * @param source the source the document was parsed from
+     * @param document the parsed document
+     * @return the processor, or null if the source could not be matched with the document
+     */
+    static SplicingProcessor record(String source, Document document) {
+        if (!document.hasRootElement()) {
+            return null;
+        }
+        Recorder recorder = new Recorder(source);
+        if (!recorder.skipProlog() || !recorder.scanElement(document.getRootElement())) {
+            return null;
+        }
+        return new SplicingProcessor(source, document.getContent().toArray(new Content[0]), recorder.spans);
+    }
+
+    @Override
+    public void process(Writer out, Format format, Document doc) throws IOException {
+        Span root = doc.hasRootElement() ? spans.get(doc.getRootElement()) : null;
+        if (root == null || !hasSameContent(doc.getContent(), documentContent)) {
+            // The prolog or the root element changed, there is nothing left to splice
+            super.process(out, format, doc);
+            return;
+        }
+        // Changed nodes already carry the indentation of the source, which must not be reformatted
+        FormatStack fstack = new FormatStack(format.clone().setTextMode(Format.TextMode.PRESERVE));
+        out.write(source, 0, root.start);
+        splice(out, fstack, new NamespaceStack(), doc.getRootElement(), new IdentityHashMap<>());
+        out.write(source, root.end, source.length() - root.end);
+        out.flush();
+    }
+
+    private void splice(Writer out, FormatStack fstack, NamespaceStack nstack, Content content,
+            Map<Element, Boolean> clean) throws IOException {
+        Span span = spans.get(content);
+        switch (content.getCType()) {
+            case Element:
+                Element element = (Element) content;
+                if (span == null || !span.hasSameTag(element)) {
+                    printElement(out, fstack, nstack, element);
+                } else if (isClean(element, clean)) {
+                    out.write(source, span.start, span.end - span.start);
+                } else if (span.selfClosing) {
+                    printElement(out, fstack, nstack, element);
+                } else {
+                    out.write(source, span.start, span.startTagEnd - span.start);
+                    nstack.push(element);
+                    fstack.push();
+                    try {
+                        for (Content child : element.getContent()) {
+                            splice(out, fstack, nstack, child, clean);
+                        }
+                    } finally {
+                        fstack.pop();
+                        nstack.pop();
+                    }
+                    out.write(source, span.endTagStart, span.end - span.endTagStart);
+                }
+                break;
+            case Text:
+                if (isUnchanged(content, span)) {
+                    out.write(source, span.start, span.end - span.start);
+                } else {
+                    printText(out, fstack, (Text) content);
+                }
+                break;
+            case CDATA:
+                if (isUnchanged(content, span)) {
+                    out.write(source, span.start, span.end - span.start);
+                } else {
+                    printCDATA(out, fstack, (CDATA) content);
+                }
+                break;
+            case Comment:
+                if (isUnchanged(content, span)) {
+                    out.write(source, span.start, span.end - span.start);
+                } else {
+                    printComment(out, fstack, (Comment) content);
+                }
+                break;
+            case ProcessingInstruction:
+                if (isUnchanged(content, span)) {
+                    out.write(source, span.start, span.end - span.start);
+                } else {
+                    printProcessingInstruction(out, fstack, (ProcessingInstruction) content);
+                }
+                break;
+            case EntityRef:
+                printEntityRef(out, fstack, (EntityRef) content);
+                break;
+            default:
+                // DocType can only be found in the prolog
+                break;
+        }
+    }
+
+    /**
+     * @return true if neither the element nor any of its descendants changed since the source was recorded
+     */
+    private boolean isClean(Element element, Map<Element, Boolean> clean) {
+        Boolean cached = clean.get(element);
+        if (cached != null) {
+            return cached;
+        }
+        Span span = spans.get(element);
+        boolean result = span != null && span.hasSameTag(element) && hasSameContent(element.getContent(), span.content);
+        if (result) {
+            for (Content child : span.content) {
+                if (child instanceof Element ? !isClean((Element) child, clean) : !isUnchanged(child, spans.get(child))) {
+                    result = false;
+                    break;
+                }
+            }
+        }
+        clean.put(element, result);
+        return result;
+    }
+
+    private static boolean isUnchanged(Content content, Span span) {
+        if (span == null) {
+            return false;
+        }
+        if (content instanceof Text) {
+            // Text values are immutable strings, a changed text is always a new instance
+            return ((Text) content).getText() == span.text;
+        }
+        if (content instanceof Comment) {
+            return ((Comment) content).getText() == span.text;
+        }
+        if (content instanceof ProcessingInstruction) {
+            return ((ProcessingInstruction) content).getData().equals(span.text);
+        }
+        return false;
+    }
+
+    private static boolean hasSameContent(List<Content> content, Content[] snapshot) {
+        if (content.size() != snapshot.length) {
+            return false;
+        }
+        for (int i = 0; i < snapshot.length; i++) {
+            if (content.get(i) != snapshot[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The location of a node in the source, along with a snapshot of the state it had when it was parsed
+     */
+    private static final class Span {
+
+        private final int start;
+
+        private final int end;
+
+        private int startTagEnd;
+
+        private int endTagStart;
+
+        private boolean selfClosing;
+
+        private String text;
+
+        private String name;
+
+        private Namespace namespace;
+
+        private List<Namespace> additionalNamespaces;
+
+        private Attribute[] attributes;
+
+        private String[] attributeValues;
+
+        private Content[] content;
+
+        private Span(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        private static Span text(int start, int end, String text) {
+            Span span = new Span(start, end);
+            span.text = text;
+            return span;
+        }
+
+        private static Span element(Element element, int start, int startTagEnd, int endTagStart, int end,
+                boolean selfClosing) {
+            Span span = new Span(start, end);
+            span.startTagEnd = startTagEnd;
+            span.endTagStart = endTagStart;
+            span.selfClosing = selfClosing;
+            span.name = element.getName();
+            span.namespace = element.getNamespace();
+            span.additionalNamespaces = List.copyOf(element.getAdditionalNamespaces());
+            span.content = element.getContent().toArray(new Content[0]);
+            if (element.hasAttributes()) {
+                List<Attribute> attributes = element.getAttributes();
+                span.attributes = attributes.toArray(new Attribute[0]);
+                span.attributeValues = new String[span.attributes.length];
+                for (int i = 0; i < span.attributes.length; i++) {
+                    span.attributeValues[i] = span.attributes[i].getValue();
+                }
+            }
+            return span;
+        }
+
+        /**
+         * @return true if the start tag in the source still represents the element
+         */
+        private boolean hasSameTag(Element element) {
+            if (!name.equals(element.getName()) || !namespace.equals(element.getNamespace())
+                    || !additionalNamespaces.equals(element.getAdditionalNamespaces())) {
+                return false;
+            }
+            if (!element.hasAttributes()) {
+                return attributes == null;
+            }
+            List<Attribute> current = element.getAttributes();
+            if (attributes == null || current.size() != attributes.length) {
+                return false;
+            }
+            for (int i = 0; i < attributes.length; i++) {
+                if (current.get(i) != attributes[i] || !attributes[i].getValue().equals(attributeValues[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Walks the source in document order, matching each markup construct with the node the parser created for it
+     */
+    private static final class Recorder {
+
+        private final String source;
+
+        private final int length;
+
+        private final Map<Content, Span> spans = new IdentityHashMap<>();
+
+        private int pos;
+
+        private Recorder(String source) {
+            this.source = source;
+            this.length = source.length();
+        }
+
+        /**
+         * Move to the start of the root element, skipping the XML declaration, DOCTYPE, comments and processing
+         * instructions
+         */
+        private boolean skipProlog() {
+            if (length > 0 && source.charAt(0) == '\uFEFF') {
+                pos++;
+            }
+            while (true) {
+                skipWhitespace();
+                if (pos >= length || source.charAt(pos) != '<') {
+                    return false;
+                }
+                if (source.startsWith("<?", pos)) {
+                    pos = indexAfter("?>");
+                } else if (source.startsWith("<!--", pos)) {
+                    pos = indexAfter("-->");
+                } else if (source.startsWith("<!DOCTYPE", pos)) {
+                    pos = skipDocType();
+                } else {
+                    return true;
+                }
+                if (pos < 0) {
+                    return false;
+                }
+            }
+        }
+
+        private int skipDocType() {
+            int depth = 0;
+            for (int i = pos; i < length; i++) {
+                char c = source.charAt(i);
+                if (c == '"' || c == '\'') {
+                    i = source.indexOf(c, i + 1);
+                    if (i < 0) {
+                        return -1;
+                    }
+                } else if (c == '[') {
+                    depth++;
+                } else if (c == ']') {
+                    depth--;
+                } else if (c == '>' && depth == 0) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+        private boolean scanElement(Element element) {
+            int start = pos;
+            String qualifiedName = element.getQualifiedName();
+            int nameEnd = start + 1 + qualifiedName.length();
+            if (!source.startsWith(qualifiedName, start + 1) || nameEnd >= length || !isTagNameEnd(source.charAt(nameEnd))) {
+                return false;
+            }
+            pos = nameEnd;
+            while (pos < length && source.charAt(pos) != '>') {
+                char c = source.charAt(pos);
+                if (c == '"' || c == '\'') {
+                    int close = source.indexOf(c, pos + 1);
+                    if (close < 0) {
+                        return false;
+                    }
+                    pos = close;
+                }
+                pos++;
+            }
+            if (pos >= length) {
+                return false;
+            }
+            int startTagEnd = ++pos;
+            if (source.charAt(startTagEnd - 2) == '/') {
+                if (element.getContentSize() > 0) {
+                    return false;
+                }
+                spans.put(element, Span.element(element, start, startTagEnd, startTagEnd, startTagEnd, true));
+                return true;
+            }
+            for (Content child : element.getContent()) {
+                if (!scanContent(child)) {
+                    return false;
+                }
+            }
+            int endTagStart = pos;
+            if (!source.startsWith("</", pos) || !source.startsWith(qualifiedName, pos + 2)) {
+                return false;
+            }
+            pos += 2 + qualifiedName.length();
+            skipWhitespace();
+            if (pos >= length || source.charAt(pos) != '>') {
+                return false;
+            }
+            pos++;
+            spans.put(element, Span.element(element, start, startTagEnd, endTagStart, pos, false));
+            return true;
+        }
+
+        private boolean scanContent(Content content) {
+            if (pos >= length) {
+                return false;
+            }
+            int start = pos;
+            switch (content.getCType()) {
+                case Element:
+                    if (source.charAt(pos) != '<') {
+                        return false;
+                    }
+                    return scanElement((Element) content);
+                case Text:
+                    if (source.charAt(pos) == '<') {
+                        return false;
+                    }
+                    pos = source.indexOf('<', pos);
+                    if (pos < 0) {
+                        return false;
+                    }
+                    return record(content, start, start, pos, ((Text) content).getText());
+                case CDATA:
+                    if (!source.startsWith("<![CDATA[", pos)) {
+                        return false;
+                    }
+                    pos = indexAfter("]]>");
+                    return pos >= 0 && record(content, start, start + 9, pos - 3, ((Text) content).getText());
+                case Comment:
+                    if (!source.startsWith("<!--", pos)) {
+                        return false;
+                    }
+                    pos = indexAfter("-->");
+                    return pos >= 0 && record(content, start, start + 4, pos - 3, ((Comment) content).getText());
+                case ProcessingInstruction:
+                    ProcessingInstruction pi = (ProcessingInstruction) content;
+                    if (!source.startsWith("<?" + pi.getTarget(), pos)) {
+                        return false;
+                    }
+                    pos = indexAfter("?>");
+                    if (pos < 0) {
+                        return false;
+                    }
+                    spans.put(content, Span.text(start, pos, pi.getData()));
+                    return true;
+                default:
+                    // Unexpanded entity references can't be matched with the source
+                    return false;
+            }
+        }
+
+        /**
+         * Record a text-like node after checking that its value matches the source between valueStart and valueEnd
+         */
+        private boolean record(Content content, int start, int valueStart, int valueEnd, String value) {
+            if (!matches(value, valueStart, valueEnd)) {
+                return false;
+            }
+            spans.put(content, Span.text(start, pos, value));
+            return true;
+        }
+
+        private boolean matches(String value, int start, int end) {
+            if (end - start == value.length() && source.regionMatches(start, value, 0, value.length())) {
+                return true;
+            }
+            // Entity references and line endings are normalized by the parser, so the value can't be compared as is
+            for (int i = start; i < end; i++) {
+                char c = source.charAt(i);
+                if (c == '&' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int indexAfter(String delimiter) {
+            int idx = source.indexOf(delimiter, pos);
+            return idx < 0 ? -1 : idx + delimiter.length();
+        }
+
+        private void skipWhitespace() {
+            while (pos < length && isWhitespace(source.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private static boolean isTagNameEnd(char c) {
+            return c == '>' || c == '/' || isWhitespace(c);
+        }
+
+        private static boolean isWhitespace(char c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+        }
+    }
+}
@@ -0,0 +1,669 @@
+package io.fabric8.maven;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.maven.model.Activation;
+import org.apache.maven.model.ActivationFile;
+import org.apache.maven.model.ActivationOS;
+import org.apache.maven.model.ActivationProperty;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.BuildBase;
+import org.apache.maven.model.CiManagement;
+import org.apache.maven.model.Contributor;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.DeploymentRepository;
+import org.apache.maven.model.Developer;
+import org.apache.maven.model.DistributionManagement;
+import org.apache.maven.model.Exclusion;
+import org.apache.maven.model.Extension;
+import org.apache.maven.model.InputLocation;
+import org.apache.maven.model.InputLocationTracker;
+import org.apache.maven.model.IssueManagement;
+import org.apache.maven.model.License;
+import org.apache.maven.model.MailingList;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.ModelBase;
+import org.apache.maven.model.Notifier;
+import org.apache.maven.model.Organization;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.model.PluginManagement;
+import org.apache.maven.model.Prerequisites;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.Relocation;
+import org.apache.maven.model.ReportPlugin;
+import org.apache.maven.model.ReportSet;
+import org.apache.maven.model.Reporting;
+import org.apache.maven.model.Repository;
+import org.apache.maven.model.RepositoryPolicy;
+import org.apache.maven.model.Resource;
+import org.apache.maven.model.Scm;
+import org.apache.maven.model.Site;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Reads a {@link Model} with a StAX {@link XMLStreamReader}, as {@link ReadOptions.Parser#STAX}.
+ * <p>
+ * It reads the same documents as the strict mode of {@link org.apache.maven.model.io.xpp3.MavenXpp3ReaderEx}, with the
+ * same values and input locations, but looks up each element in a table instead of comparing it to every known name,
+ * and puts the properties of the model straight into a {@link SortedProperties}.
+ */
+final class StaxModelReader {
+
+    private static final Binding<ActivationFile> ACTIVATION_FILE = new Binding<>(ActivationFile::new)
+            .text("missing", ActivationFile::setMissing)
+            .text("exists", ActivationFile::setExists);
+
+    private static final Binding<ActivationOS> ACTIVATION_OS = new Binding<>(ActivationOS::new)
+            .text("name", ActivationOS::setName)
+            .text("family", ActivationOS::setFamily)
+            .text("arch", ActivationOS::setArch)
+            .text("version", ActivationOS::setVersion);
+
+    private static final Binding<ActivationProperty> ACTIVATION_PROPERTY = new Binding<>(ActivationProperty::new)
+            .text("name", ActivationProperty::setName)
+            .text("value", ActivationProperty::setValue);
+
+    private static final Binding<Activation> ACTIVATION = new Binding<>(Activation::new)
+            .bool("activeByDefault", Activation::setActiveByDefault, false)
+            .text("jdk", Activation::setJdk)
+            .object("os", ACTIVATION_OS, Activation::setOs)
+            .object("property", ACTIVATION_PROPERTY, Activation::setProperty)
+            .object("file", ACTIVATION_FILE, Activation::setFile);
+
+    private static final Binding<Exclusion> EXCLUSION = new Binding<>(Exclusion::new)
+            .text("groupId", Exclusion::setGroupId)
+            .text("artifactId", Exclusion::setArtifactId);
+
+    private static final Binding<Dependency> DEPENDENCY = new Binding<>(Dependency::new)
+            .text("groupId", Dependency::setGroupId)
+            .text("artifactId", Dependency::setArtifactId)
+            .text("version", Dependency::setVersion)
+            .text("type", Dependency::setType)
+            .text("classifier", Dependency::setClassifier)
+            .text("scope", Dependency::setScope)
+            .text("systemPath", Dependency::setSystemPath)
+            .objects("exclusions", "exclusion", EXCLUSION, Dependency::setExclusions)
+            .text("optional", Dependency::setOptional);
+
+    private static final Binding<DependencyManagement> DEPENDENCY_MANAGEMENT = new Binding<>(DependencyManagement::new)
+            .objects("dependencies", "dependency", DEPENDENCY, DependencyManagement::setDependencies);
+
+    private static final Binding<PluginExecution> PLUGIN_EXECUTION = new Binding<>(PluginExecution::new)
+            .text("id", PluginExecution::setId)
+            .text("phase", PluginExecution::setPhase)
+            .strings("goals", "goal", PluginExecution::setGoals)
+            .text("inherited", PluginExecution::setInherited)
+            .dom("configuration", PluginExecution::setConfiguration);
+
+    private static final Binding<Plugin> PLUGIN = new Binding<>(Plugin::new)
+            .text("groupId", Plugin::setGroupId)
+            .text("artifactId", Plugin::setArtifactId)
+            .text("version", Plugin::setVersion)
+            .text("extensions", Plugin::setExtensions)
+            .objects("executions", "execution", PLUGIN_EXECUTION, Plugin::setExecutions)
+            .objects("dependencies", "dependency", DEPENDENCY, Plugin::setDependencies)
+            .dom("goals", Plugin::setGoals)
+            .text("inherited", Plugin::setInherited)
+            .dom("configuration", Plugin::setConfiguration);
+
+    private static final Binding<PluginManagement> PLUGIN_MANAGEMENT = new Binding<>(PluginManagement::new)
+            .objects("plugins", "plugin", PLUGIN, PluginManagement::setPlugins);
+
+    private static final Binding<Resource> RESOURCE = new Binding<>(Resource::new)
+            .text("targetPath", Resource::setTargetPath)
+            .text("filtering", Resource::setFiltering)
+            .text("directory", Resource::setDirectory)
+            .strings("includes", "include", Resource::setIncludes)
+            .strings("excludes", "exclude", Resource::setExcludes);
+
+    private static final Binding<Extension> EXTENSION = new Binding<>(Extension::new)
+            .text("groupId", Extension::setGroupId)
+            .text("artifactId", Extension::setArtifactId)
+            .text("version", Extension::setVersion);
+
+    private static final Binding<BuildBase> BUILD_BASE = buildBase(new Binding<>(BuildBase::new));
+
+    private static final Binding<Build> BUILD = buildBase(new Binding<>(Build::new))
+            .text("sourceDirectory", Build::setSourceDirectory)
+            .text("scriptSourceDirectory", Build::setScriptSourceDirectory)
+            .text("testSourceDirectory", Build::setTestSourceDirectory)
+            .text("outputDirectory", Build::setOutputDirectory)
+            .text("testOutputDirectory", Build::setTestOutputDirectory)
+            .objects("extensions", "extension", EXTENSION, Build::setExtensions);
+
+    private static final Binding<RepositoryPolicy> REPOSITORY_POLICY = new Binding<>(RepositoryPolicy::new)
+            .text("enabled", RepositoryPolicy::setEnabled)
+            .text("updatePolicy", RepositoryPolicy::setUpdatePolicy)
+            .text("checksumPolicy", RepositoryPolicy::setChecksumPolicy);
+
+    private static final Binding<Repository> REPOSITORY = repository(new Binding<>(Repository::new));
+
+    private static final Binding<DeploymentRepository> DEPLOYMENT_REPOSITORY = repository(
+            new Binding<>(DeploymentRepository::new))
+            .bool("uniqueVersion", DeploymentRepository::setUniqueVersion, true);
+
+    private static final Binding<Site> SITE = new Binding<>(Site::new)
+            .attribute("child.site.url.inherit.append.path", "childSiteUrlInheritAppendPath",
+                    Site::setChildSiteUrlInheritAppendPath)
+            .text("id", Site::setId)
+            .text("name", Site::setName)
+            .text("url", Site::setUrl);
+
+    private static final Binding<Relocation> RELOCATION = new Binding<>(Relocation::new)
+            .text("groupId", Relocation::setGroupId)
+            .text("artifactId", Relocation::setArtifactId)
+            .text("version", Relocation::setVersion)
+            .text("message", Relocation::setMessage);
+
+    private static final Binding<DistributionManagement> DISTRIBUTION_MANAGEMENT = new Binding<>(
+            DistributionManagement::new)
+            .object("repository", DEPLOYMENT_REPOSITORY, DistributionManagement::setRepository)
+            .object("snapshotRepository", DEPLOYMENT_REPOSITORY, DistributionManagement::setSnapshotRepository)
+            .object("site", SITE, DistributionManagement::setSite)
+            .text("downloadUrl", DistributionManagement::setDownloadUrl)
+            .object("relocation", RELOCATION, DistributionManagement::setRelocation)
+            .text("status", DistributionManagement::setStatus);
+
+    private static final Binding<ReportSet> REPORT_SET = new Binding<>(ReportSet::new)
+            .text("id", ReportSet::setId)
+            .strings("reports", "report", ReportSet::setReports)
+            .text("inherited", ReportSet::setInherited)
+            .dom("configuration", ReportSet::setConfiguration);
+
+    private static final Binding<ReportPlugin> REPORT_PLUGIN = new Binding<>(ReportPlugin::new)
+            .text("groupId", ReportPlugin::setGroupId)
+            .text("artifactId", ReportPlugin::setArtifactId)
+            .text("version", ReportPlugin::setVersion)
+            .objects("reportSets", "reportSet", REPORT_SET, ReportPlugin::setReportSets)
+            .text("inherited", ReportPlugin::setInherited)
+            .dom("configuration", ReportPlugin::setConfiguration);
+
+    private static final Binding<Reporting> REPORTING = new Binding<>(Reporting::new)
+            .text("excludeDefaults", Reporting::setExcludeDefaults)
+            .text("outputDirectory", Reporting::setOutputDirectory)
+            .objects("plugins", "plugin", REPORT_PLUGIN, Reporting::setPlugins);
+
+    private static final Binding<Profile> PROFILE = modelBase(new Binding<>(Profile::new))
+            .text("id", Profile::setId)
+            .object("activation", ACTIVATION, Profile::setActivation)
+            .object("build", BUILD_BASE, Profile::setBuild);
+
+    private static final Binding<Parent> PARENT = new Binding<>(Parent::new)
+            .text("groupId", Parent::setGroupId)
+            .text("artifactId", Parent::setArtifactId)
+            .text("version", Parent::setVersion)
+            .text("relativePath", Parent::setRelativePath);
+
+    private static final Binding<Organization> ORGANIZATION = new Binding<>(Organization::new)
+            .text("name", Organization::setName)
+            .text("url", Organization::setUrl);
+
+    private static final Binding<License> LICENSE = new Binding<>(License::new)
+            .text("name", License::setName)
+            .text("url", License::setUrl)
+            .text("distribution", License::setDistribution)
+            .text("comments", License::setComments);
+
+    private static final Binding<Developer> DEVELOPER = contributor(new Binding<>(Developer::new))
+            .text("id", Developer::setId);
+
+    private static final Binding<Contributor> CONTRIBUTOR = contributor(new Binding<>(Contributor::new));
+
+    private static final Binding<MailingList> MAILING_LIST = new Binding<>(MailingList::new)
+            .text("name", MailingList::setName)
+            .text("subscribe", MailingList::setSubscribe)
+            .text("unsubscribe", MailingList::setUnsubscribe)
+            .text("post", MailingList::setPost)
+            .text("archive", MailingList::setArchive)
+            .strings("otherArchives", "otherArchive", MailingList::setOtherArchives);
+
+    private static final Binding<Prerequisites> PREREQUISITES = new Binding<>(Prerequisites::new)
+            .text("maven", Prerequisites::setMaven);
+
+    private static final Binding<Scm> SCM = new Binding<>(Scm::new)
+            .attribute("child.scm.connection.inherit.append.path", "childScmConnectionInheritAppendPath",
+                    Scm::setChildScmConnectionInheritAppendPath)
+            .attribute("child.scm.developerConnection.inherit.append.path",
+                    "childScmDeveloperConnectionInheritAppendPath", Scm::setChildScmDeveloperConnectionInheritAppendPath)
+            .attribute("child.scm.url.inherit.append.path", "childScmUrlInheritAppendPath",
+                    Scm::setChildScmUrlInheritAppendPath)
+            .text("connection", Scm::setConnection)
+            .text("developerConnection", Scm::setDeveloperConnection)
+            .text("tag", Scm::setTag)
+            .text("url", Scm::setUrl);
+
+    private static final Binding<IssueManagement> ISSUE_MANAGEMENT = new Binding<>(IssueManagement::new)
+            .text("system", IssueManagement::setSystem)
+            .text("url", IssueManagement::setUrl);
+
+    private static final Binding<Notifier> NOTIFIER = new Binding<>(Notifier::new)
+            .text("type", Notifier::setType)
+            .bool("sendOnError", Notifier::setSendOnError, true)
+            .bool("sendOnFailure", Notifier::setSendOnFailure, true)
+            .bool("sendOnSuccess", Notifier::setSendOnSuccess, true)
+            .bool("sendOnWarning", Notifier::setSendOnWarning, true)
+            .text("address", Notifier::setAddress)
+            .properties("configuration", Notifier::getConfiguration);
+
+    private static final Binding<CiManagement> CI_MANAGEMENT = new Binding<>(CiManagement::new)
+            .text("system", CiManagement::setSystem)
+            .text("url", CiManagement::setUrl)
+            .objects("notifiers", "notifier", NOTIFIER, CiManagement::setNotifiers);
+
+    private static final Binding<Model> MODEL = modelBase(new Binding<>(StaxModelReader::newModel))
+            .ignoredAttribute("xmlns")
+            .attribute("child.project.url.inherit.append.path", "childProjectUrlInheritAppendPath",
+                    Model::setChildProjectUrlInheritAppendPath)
+            .text("modelVersion", Model::setModelVersion)
+            .object("parent", PARENT, Model::setParent)
+            .text("groupId", Model::setGroupId)
+            .text("artifactId", Model::setArtifactId)
+            .text("version", Model::setVersion)
+            .text("packaging", Model::setPackaging)
+            .text("name", Model::setName)
+            .text("description", Model::setDescription)
+            .text("url", Model::setUrl)
+            .text("inceptionYear", Model::setInceptionYear)
+            .object("organization", "organisation", ORGANIZATION, Model::setOrganization)
+            .objects("licenses", "license", LICENSE, Model::setLicenses)
+            .objects("developers", "developer", DEVELOPER, Model::setDevelopers)
+            .objects("contributors", "contributor", CONTRIBUTOR, Model::setContributors)
+            .objects("mailingLists", "mailingList", MAILING_LIST, Model::setMailingLists)
+            .object("prerequisites", PREREQUISITES, Model::setPrerequisites)
+            .object("scm", SCM, Model::setScm)
+            .object("issueManagement", ISSUE_MANAGEMENT, Model::setIssueManagement)
+            .object("ciManagement", CI_MANAGEMENT, Model::setCiManagement)
+            .object("build", BUILD, Model::setBuild)
+            .objects("profiles", "profile", PROFILE, Model::setProfiles);
+
+    private final XMLStreamReader reader;
+
+    private final boolean trackLocations;
+
+    private StaxModelReader(XMLStreamReader reader, boolean trackLocations) {
+        this.reader = reader;
+        this.trackLocations = trackLocations;
+    }
+
+    /**
+     * Read the {@link Model} from the given reader
+     *
+     * @param input a Reader on the contents of a pom file
+     * @param trackLocations false to only record the location of the packaging
+     * @return the maven {@link Model}
+     */
+    static Model read(Reader input, boolean trackLocations) throws XMLStreamException {
+        XMLStreamReader reader = XMLParsers.createStreamReader(input);
+        try {
+            return new StaxModelReader(reader, trackLocations).readDocument();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private Model readDocument() throws XMLStreamException {
+        Model model = null;
+        while (reader.hasNext()) {
+            // Reading up to the end of the document checks that it is well-formed
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                String name = name();
+                if (!"project".equals(name)) {
+                    throw error("Expected root element 'project' but found '" + name + "'");
+                }
+                model = MODEL.read(this);
+                model.setModelEncoding(reader.getCharacterEncodingScheme());
+            }
+        }
+        if (model == null) {
+            throw error("Expected root element 'project' but found no element at all: invalid XML document");
+        }
+        return model;
+    }
+
+    private static Model newModel() {
+        Model model = new Model();
+        model.setProperties(new SortedProperties());
+        return model;
+    }
+
+    private static <T extends Contributor> Binding<T> contributor(Binding<T> binding) {
+        return binding
+                .text("name", Contributor::setName)
+                .text("email", Contributor::setEmail)
+                .text("url", Contributor::setUrl)
+                .text("organization", "organisation", Contributor::setOrganization)
+                .text("organizationUrl", "organisationUrl", Contributor::setOrganizationUrl)
+                .strings("roles", "role", Contributor::setRoles)
+                .text("timezone", Contributor::setTimezone)
+                .properties("properties", Contributor::getProperties);
+    }
+
+    private static <T extends Repository> Binding<T> repository(Binding<T> binding) {
+        return binding
+                .object("releases", REPOSITORY_POLICY, Repository::setReleases)
+                .object("snapshots", REPOSITORY_POLICY, Repository::setSnapshots)
+                .text("id", Repository::setId)
+                .text("name", Repository::setName)
+                .text("url", Repository::setUrl)
+                .text("layout", Repository::setLayout);
+    }
+
+    private static <T extends BuildBase> Binding<T> buildBase(Binding<T> binding) {
+        return binding
+                .text("defaultGoal", BuildBase::setDefaultGoal)
+                .objects("resources", "resource", RESOURCE, BuildBase::setResources)
+                .objects("testResources", "testResource", RESOURCE, BuildBase::setTestResources)
+                .text("directory", BuildBase::setDirectory)
+                .text("finalName", BuildBase::setFinalName)
+                .strings("filters", "filter", BuildBase::setFilters)
+                .object("pluginManagement", PLUGIN_MANAGEMENT, BuildBase::setPluginManagement)
+                .objects("plugins", "plugin", PLUGIN, BuildBase::setPlugins);
+    }
+
+    private static <T extends ModelBase> Binding<T> modelBase(Binding<T> binding) {
+        return binding
+                .strings("modules", "module", ModelBase::setModules)
+                .object("distributionManagement", DISTRIBUTION_MANAGEMENT, ModelBase::setDistributionManagement)
+                .properties("properties", ModelBase::getProperties)
+                .object("dependencyManagement", DEPENDENCY_MANAGEMENT, ModelBase::setDependencyManagement)
+                .objects("dependencies", "dependency", DEPENDENCY, ModelBase::setDependencies)
+                .objects("repositories", "repository", REPOSITORY, ModelBase::setRepositories)
+                .objects("pluginRepositories", "pluginRepository", REPOSITORY, ModelBase::setPluginRepositories)
+                .dom("reports", ModelBase::setReports)
+                .object("reporting", REPORTING, ModelBase::setReporting);
+    }
+
+    /**
+     * @return the name of the current element, including its prefix
+     */
+    private String name() {
+        String prefix = reader.getPrefix();
+        String localName = reader.getLocalName();
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+    }
+
+    private String text() throws XMLStreamException {
+        return reader.getElementText().trim();
+    }
+
+    private InputLocation location() {
+        Location location = reader.getLocation();
+        return new InputLocation(location.getLineNumber(), location.getColumnNumber(), null);
+    }
+
+    /**
+     * @return the location set on the target, or null if the locations are not tracked
+     */
+    private InputLocation setLocation(InputLocationTracker target, String field) {
+        // SmartModelMerger relies on the location of the packaging to tell whether it was declared
+        if (!trackLocations && !(target instanceof Model && "packaging".equals(field))) {
+            return null;
+        }
+        InputLocation location = location();
+        target.setLocation(field, location);
+        return location;
+    }
+
+    private XMLStreamException error(String message) {
+        return new XMLStreamException(message, reader.getLocation());
+    }
+
+    /**
+     * Read the configuration element as {@link org.codehaus.plexus.util.xml.Xpp3DomBuilder} does, trimming the text
+     * unless {@code xml:space="preserve"} and giving a null value to the empty elements
+     */
+    private Xpp3Dom readDom() throws XMLStreamException {
+        Xpp3Dom dom = new Xpp3Dom(name());
+        if (trackLocations) {
+            dom.setInputLocation(location());
+        }
+        boolean preserveSpace = false;
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String prefix = reader.getAttributePrefix(i);
+            String localName = reader.getAttributeLocalName(i);
+            String name = prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+            String value = reader.getAttributeValue(i);
+            dom.setAttribute(name, value);
+            preserveSpace |= "xml:space".equals(name) && "preserve".equals(value);
+        }
+        int startOffset = reader.getLocation().getCharacterOffset();
+        StringBuilder value = null;
+        boolean empty = true;
+        while (true) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    dom.addChild(readDom());
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    // Comments don't split the text, as with XmlPullParser.next()
+                    value = value == null ? new StringBuilder(reader.getText()) : value.append(reader.getText());
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (dom.getChildCount() == 0) {
+                        // An empty element tag ends where it starts
+                        boolean emptyElementTag = empty && reader.getLocation().getCharacterOffset() == startOffset;
+                        String text = value == null ? "" : preserveSpace ? value.toString() : value.toString().trim();
+                        dom.setValue(emptyElementTag ? null : text);
+                    }
+                    return dom;
+                default:
+                    break;
+            }
+            empty = false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface FieldReader<T> {
+        void read(StaxModelReader reader, T target, String field) throws XMLStreamException;
+    }
+
+    private static final class Field<T> {
+
+        private final String name;
+
+        private final long bit;
+
+        private final FieldReader<T> reader;
+
+        private Field(String name, int index, FieldReader<T> reader) {
+            this.name = name;
+            this.bit = 1L << index;
+            this.reader = reader;
+        }
+    }
+
+    private static final class Attribute<T> {
+
+        private final String field;
+
+        private final BiConsumer<T, String> setter;
+
+        private Attribute(String field, BiConsumer<T, String> setter) {
+            this.field = field;
+            this.setter = setter;
+        }
+    }
+
+    /**
+     * Maps the elements and attributes of a tag to the fields of a model class
+     */
+    private static final class Binding<T extends InputLocationTracker> {
+
+        private final Supplier<T> factory;
+
+        private final Map<String, Field<T>> fields = new HashMap<>();
+
+        private final Map<String, Attribute<T>> attributes = new HashMap<>();
+
+        private int fieldCount;
+
+        private Binding(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        private Binding<T> field(String name, String alias, FieldReader<T> reader) {
+            if (fieldCount == Long.SIZE) {
+                throw new IllegalStateException("Too many fields");
+            }
+            Field<T> field = new Field<>(name, fieldCount++, reader);
+            fields.put(name, field);
+            if (alias != null) {
+                fields.put(alias, field);
+            }
+            return this;
+        }
+
+        Binding<T> text(String name, BiConsumer<? super T, String> setter) {
+            return text(name, null, setter);
+        }
+
+        Binding<T> text(String name, String alias, BiConsumer<? super T, String> setter) {
+            return field(name, alias, (reader, target, field) -> {
+                reader.setLocation(target, field);
+                setter.accept(target, reader.text());
+            });
+        }
+
+        Binding<T> bool(String name, BiConsumer<? super T, Boolean> setter, boolean defaultValue) {
+            return field(name, null, (reader, target, field) -> {
+                reader.setLocation(target, field);
+                String value = reader.text();
+                setter.accept(target, value.isEmpty() ? defaultValue : Boolean.parseBoolean(value));
+            });
+        }
+
+        <V extends InputLocationTracker> Binding<T> object(String name, Binding<V> binding,
+                BiConsumer<? super T, V> setter) {
+            return object(name, null, binding, setter);
+        }
+
+        <V extends InputLocationTracker> Binding<T> object(String name, String alias, Binding<V> binding,
+                BiConsumer<? super T, V> setter) {
+            return field(name, alias, (reader, target, field) -> setter.accept(target, binding.read(reader)));
+        }
+
+        <V extends InputLocationTracker> Binding<T> objects(String name, String itemName, Binding<V> binding,
+                BiConsumer<? super T, List<V>> setter) {
+            return field(name, null, (reader, target, field) -> {
+                List<V> values = new ArrayList<>();
+                while (reader.reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                    String item = reader.name();
+                    if (!itemName.equals(item)) {
+                        throw reader.error("Unrecognised tag: '" + item + "'");
+                    }
+                    values.add(binding.read(reader));
+                }
+                setter.accept(target, values);
+            });
+        }
+
+        Binding<T> strings(String name, String itemName, BiConsumer<? super T, List<String>> setter) {
+            return field(name, null, (reader, target, field) -> {
+                List<String> values = new ArrayList<>();
+                InputLocation locations = reader.setLocation(target, field);
+                while (reader.reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                    String item = reader.name();
+                    if (!itemName.equals(item)) {
+                        throw reader.error("Unrecognised tag: '" + item + "'");
+                    }
+                    if (locations != null) {
+                        locations.setLocation(values.size(), reader.location());
+                    }
+                    values.add(reader.text());
+                }
+                setter.accept(target, values);
+            });
+        }
+
+        Binding<T> properties(String name, Function<? super T, Properties> getter) {
+            return field(name, null, (reader, target, field) -> {
+                Properties properties = getter.apply(target);
+                InputLocation locations = reader.setLocation(target, field);
+                while (reader.reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                    String key = reader.name();
+                    if (locations != null) {
+                        locations.setLocation(key, reader.location());
+                    }
+                    properties.put(key, reader.text());
+                }
+            });
+        }
+
+        Binding<T> dom(String name, BiConsumer<? super T, Object> setter) {
+            return field(name, null, (reader, target, field) -> {
+                reader.setLocation(target, field);
+                setter.accept(target, reader.readDom());
+            });
+        }
+
+        Binding<T> attribute(String name, String field, BiConsumer<? super T, String> setter) {
+            attributes.put(name, new Attribute<>(field, setter::accept));
+            return this;
+        }
+
+        Binding<T> ignoredAttribute(String name) {
+            attributes.put(name, new Attribute<>(null, null));
+            return this;
+        }
+
+        /**
+         * Read the current element, leaving the reader on its end tag
+         */
+        T read(StaxModelReader reader) throws XMLStreamException {
+            XMLStreamReader stream = reader.reader;
+            String tagName = reader.name();
+            T target = factory.get();
+            reader.setLocation(target, "");
+            for (int i = stream.getAttributeCount() - 1; i >= 0; i--) {
+                String prefix = stream.getAttributePrefix(i);
+                if (prefix != null && !prefix.isEmpty()) {
+                    // just ignore attributes with non-default namespace (for example: xmlns:xsi)
+                    continue;
+                }
+                String name = stream.getAttributeLocalName(i);
+                Attribute<T> attribute = attributes.get(name);
+                if (attribute == null) {
+                    throw reader.error("Unknown attribute '" + name + "' for tag '" + tagName + "'");
+                }
+                if (attribute.setter != null) {
+                    reader.setLocation(target, attribute.field);
+                    attribute.setter.accept(target, stream.getAttributeValue(i).trim());
+                }
+            }
+            long parsed = 0;
+            while (stream.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.name();
+                Field<T> field = fields.get(name);
+                if (field == null) {
+                    throw reader.error("Unrecognised tag: '" + name + "'");
+                }
+                if ((parsed & field.bit) != 0) {
+                    throw reader.error("Duplicated tag: '" + field.name + "'");
+                }
+                parsed |= field.bit;
+                field.reader.read(reader, target, field.name);
+            }
+            return target;
+        }
+    }
+}
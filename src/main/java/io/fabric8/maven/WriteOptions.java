@@ -0,0 +1,116 @@
+package io.fabric8.maven;
+
+/**
+ * Options for writing a {@link org.apache.maven.model.Model} back to a POM file
+ */
+public class WriteOptions {
+
+    public static final WriteOptions DEFAULT = WriteOptions.builder().build();
+
+    private final boolean atomic;
+
+    private final boolean sync;
+
+    private final ModelIOListener listener;
+
+    private WriteOptions(Builder builder) {
+        this.atomic = builder.atomic;
+        this.sync = builder.sync;
+        this.listener = builder.listener;
+    }
+
+    /**
+     * @return true if the POM file is replaced by a complete temporary file instead of being overwritten in place
+     */
+    public boolean isAtomic() {
+        return atomic;
+    }
+
+    /**
+     * @return true if the POM file is flushed to the storage device before the write returns
+     */
+    public boolean isSync() {
+        return sync;
+    }
+
+    /**
+     * @return the listener notified of this call in addition to the registered ones, may be null
+     */
+    public ModelIOListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Create a new builder
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create a new builder with the given {@link WriteOptions}
+     *
+     * @param options the options
+     * @return a new builder
+     */
+    public static Builder builder(WriteOptions options) {
+        return new Builder()
+                .atomic(options.isAtomic())
+                .sync(options.isSync())
+                .listener(options.getListener());
+    }
+
+    public static class Builder {
+        private boolean atomic;
+
+        private boolean sync;
+
+        private ModelIOListener listener;
+
+        Builder() {
+        }
+
+        /**
+         * Write the POM file to a temporary file in the same directory, then move it over the POM file in a single
+         * atomic step, so that a process killed in the middle of the write leaves either the old or the new contents,
+         * never a truncated file.
+         *
+         * @param atomic true to replace the POM file atomically
+         * @return this builder
+         */
+        public Builder atomic(boolean atomic) {
+            this.atomic = atomic;
+            return this;
+        }
+
+        /**
+         * Force the contents to the storage device before the write returns, and the directory entry as well for an
+         * atomic write, so that they also survive a power loss. This costs an {@code fsync} per file: use a
+         * {@link PomWriteBatch} to defer them to the end of a bulk update.
+         *
+         * @param sync true to flush the POM file to the storage device
+         * @return this builder
+         */
+        public Builder sync(boolean sync) {
+            this.sync = sync;
+            return this;
+        }
+
+        /**
+         * Notify a listener of this call, in addition to the ones registered with {@link ModelIOListeners}
+         *
+         * @param listener the listener, may be null
+         * @return this builder
+         */
+        public Builder listener(ModelIOListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        public WriteOptions build() {
+            return new WriteOptions(this);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package io.fabric8.maven;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.nio.file.Files;
@@ -10,10 +12,10 @@ import java.nio.file.Path;
 
 import org.jdom2.Document;
 import org.jdom2.JDOMException;
-import org.jdom2.input.SAXBuilder;
 import org.jdom2.output.Format;
 import org.jdom2.output.LineSeparator;
 import org.jdom2.output.XMLOutputter;
+import org.jdom2.output.support.XMLOutputProcessor;
 
 /**
  * Output format for an XML document
@@ -32,11 +34,26 @@ public class XMLFormat {
 
     private final String lineSeparator;
 
+    private final boolean spliceUnchangedContent;
+
+    private final Format outputFormat;
+
+    private final XMLOutputter xmlOutputter;
+
     private XMLFormat(Builder builder) {
         this.indent = builder.indent;
         this.insertLineBreakBetweenMajorSections = builder.insertLineBreakBetweenMajorSections;
         this.textMode = builder.textMode;
         this.lineSeparator = builder.lineSeparator;
+        this.spliceUnchangedContent = builder.spliceUnchangedContent;
+        this.outputFormat = Format.getRawFormat()
+                .setIndent(indent)
+                .setLineSeparator(lineSeparator)
+                .setTextMode(Format.TextMode.valueOf(textMode.name()));
+        // XMLOutputter is thread-safe as long as its processor is, which holds for LineBreakProcessor too
+        this.xmlOutputter = insertLineBreakBetweenMajorSections
+                ? new XMLOutputter(outputFormat, new LineBreakProcessor())
+                : new XMLOutputter(outputFormat);
     }
 
     /**
@@ -57,6 +74,13 @@ public class XMLFormat {
         return textMode;
     }
 
+    /**
+     * @return true if the unchanged parts of an existing POM file should be copied verbatim when it is updated
+     */
+    public boolean isSpliceUnchangedContent() {
+        return spliceUnchangedContent;
+    }
+
     /**
      * Format the XML from the given reader
      *
@@ -64,45 +88,57 @@ public class XMLFormat {
      * @return the formatted XML
      */
     public String format(Reader reader) {
-        Document document;
-        try {
-            document = new SAXBuilder().build(reader);
-            XMLOutputter xmlOutputter = createXmlOutputter();
-            return xmlOutputter.outputString(document);
-        } catch (JDOMException e) {
-            throw new RuntimeException("Could not parse XML", e);
-        } catch (IOException e) {
-            throw new UncheckedIOException("Could not read XML", e);
-        }
+        StringWriter writer = new StringWriter();
+        format(reader, writer);
+        return writer.toString();
     }
 
+    /**
+     * Format the XML from the given reader to the given writer
+     *
+     * @param reader the reader
+     * @param writer the writer
+     */
     public void format(Reader reader, Writer writer) {
+        ModelIOListener listener = ModelIOListeners.of(null);
+        long start = ModelIOListeners.started(listener, ModelIOListener.Phase.FORMAT, null);
         Document document;
         try {
-            document = new SAXBuilder().build(reader);
-            XMLOutputter xmlOutputter = createXmlOutputter();
-            xmlOutputter.output(document, writer);
+            document = XMLParsers.build(reader);
+            createXmlOutputter().output(document, writer);
         } catch (JDOMException e) {
             throw new RuntimeException("Could not parse XML", e);
         } catch (IOException e) {
             throw new UncheckedIOException("Could not read XML", e);
         }
+        if (listener != null) {
+            listener.elementsProcessed(ModelIOListener.Phase.FORMAT, null, ModelIOListeners.countElements(document));
+        }
+        ModelIOListeners.ended(listener, ModelIOListener.Phase.FORMAT, null, start);
     }
 
+    /**
+     * @return an {@link XMLOutputter} for this format, callers must not modify it
+     */
     XMLOutputter createXmlOutputter() {
-        XMLOutputter xmlOutputter = new XMLOutputter();
-        Format format = Format.getRawFormat();
-        format.setIndent(indent);
-        format.setLineSeparator(lineSeparator);
-        format.setTextMode(Format.TextMode.valueOf(textMode.name()));
-        if (insertLineBreakBetweenMajorSections) {
-            // Insert line breaks between major sections
-            xmlOutputter.setXMLOutputProcessor(new LineBreakProcessor());
-        }
-        xmlOutputter.setFormat(format);
         return xmlOutputter;
     }
 
+    /**
+     * @return the JDOM2 {@link Format} of this format, callers must not modify it
+     */
+    Format getOutputFormat() {
+        return outputFormat;
+    }
+
+    /**
+     * @param processor the processor to use
+     * @return an {@link XMLOutputter} for this format using the given processor
+     */
+    XMLOutputter createXmlOutputter(XMLOutputProcessor processor) {
+        return new XMLOutputter(outputFormat, processor);
+    }
+
     /**
      * Find the indentation used in the POM file
      *
@@ -111,17 +147,35 @@ public class XMLFormat {
      */
     static String findIndentation(Path pom) {
         try (BufferedReader br = Files.newBufferedReader(pom)) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                int idx = line.indexOf("<");
-                // We don't care about the first line or unindented lines
-                if (idx > 0) {
-                    return line.substring(0, idx);
-                }
-            }
+            return findIndentation(br);
         } catch (IOException e) {
             throw new UncheckedIOException("Could not read POM file: " + pom, e);
         }
+    }
+
+    /**
+     * Find the indentation used in the POM contents
+     *
+     * @param source the contents of the POM file
+     * @return the indentation used in the POM contents
+     */
+    static String findIndentation(String source) {
+        try (BufferedReader br = new BufferedReader(new StringReader(source))) {
+            return findIndentation(br);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read POM contents", e);
+        }
+    }
+
+    private static String findIndentation(BufferedReader br) throws IOException {
+        String line;
+        while ((line = br.readLine()) != null) {
+            int idx = line.indexOf("<");
+            // We don't care about the first line or unindented lines
+            if (idx > 0) {
+                return line.substring(0, idx);
+            }
+        }
         return XMLFormat.DEFAULT.getIndent();
     }
 
@@ -170,7 +224,8 @@ public class XMLFormat {
         return new Builder()
                 .indent(format.getIndent())
                 .insertLineBreakBetweenMajorSections(format.isInsertLineBreakBetweenMajorSections())
-                .textMode(format.getTextMode());
+                .textMode(format.getTextMode())
+                .spliceUnchangedContent(format.isSpliceUnchangedContent());
     }
 
     public static class Builder {
@@ -182,6 +237,8 @@ public class XMLFormat {
 
         private String lineSeparator = LineSeparator.UNIX.value();
 
+        private boolean spliceUnchangedContent = false;
+
         Builder() {
         }
 
@@ -209,6 +266,23 @@ public class XMLFormat {
             return this;
         }
 
+        public Builder spliceUnchangedContent() {
+            return spliceUnchangedContent(true);
+        }
+
+        /**
+         * When updating an existing POM file, copy the source of every element that did not change instead of
+         * printing it again, so only the changed elements are formatted. Unchanged content is kept exactly as it was,
+         * regardless of the other settings of this format, and new elements are indented like the POM file.
+         *
+         * @param spliceUnchangedContent true to copy unchanged content verbatim
+         * @return this builder
+         */
+        public Builder spliceUnchangedContent(boolean spliceUnchangedContent) {
+            this.spliceUnchangedContent = spliceUnchangedContent;
+            return this;
+        }
+
         public XMLFormat build() {
             return new XMLFormat(this);
         }
@@ -0,0 +1,90 @@
+package io.fabric8.maven;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.codehaus.plexus.util.xml.pull.EntityReplacementMap;
+import org.codehaus.plexus.util.xml.pull.MXParser;
+import org.codehaus.plexus.util.xml.pull.XmlPullParser;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.jdom2.Document;
+import org.jdom2.JDOMException;
+import org.jdom2.input.SAXBuilder;
+
+/**
+ * Per-thread {@link SAXBuilder}, {@link XMLInputFactory} and {@link XmlPullParser} instances.
+ * <p>
+ * Creating a {@link SAXBuilder} looks up the JAXP factories and creating its underlying SAX parser loads and configures
+ * the parser classes, which is expensive compared to parsing a small POM. A {@link SAXBuilder} reuses its parser across
+ * builds and resets its state after each one, but it is not thread-safe, hence one instance per thread. The same goes
+ * for the {@link XMLInputFactory}, which is not guaranteed to be thread-safe either, and for the {@link MXParser},
+ * which keeps its buffers when given a new input.
+ */
+final class XMLParsers {
+
+    private static final ThreadLocal<SAXBuilder> SAX_BUILDER = ThreadLocal.withInitial(SAXBuilder::new);
+
+    private static final ThreadLocal<XMLInputFactory> INPUT_FACTORY = ThreadLocal
+            .withInitial(XMLParsers::createInputFactory);
+
+    private static final ThreadLocal<MXParser> PULL_PARSER = ThreadLocal
+            .withInitial(() -> new MXParser(EntityReplacementMap.defaultEntityReplacementMap));
+
+    private XMLParsers() {
+        throw new IllegalAccessError("Utility class");
+    }
+
+    /**
+     * Parse the XML from the given reader
+     *
+     * @param reader the reader
+     * @return the parsed {@link Document}
+     */
+    static Document build(Reader reader) throws JDOMException, IOException {
+        SAXBuilder builder = SAX_BUILDER.get();
+        try {
+            return builder.build(reader);
+        } catch (JDOMException | IOException | RuntimeException | Error e) {
+            // Don't reuse a parser that failed in an unknown state
+            SAX_BUILDER.remove();
+            throw e;
+        }
+    }
+
+    /**
+     * Create a StAX reader on the XML from the given reader, without namespace processing nor DTD support
+     *
+     * @param reader the reader
+     * @return the {@link XMLStreamReader}
+     */
+    static XMLStreamReader createStreamReader(Reader reader) throws XMLStreamException {
+        return INPUT_FACTORY.get().createXMLStreamReader(reader);
+    }
+
+    /**
+     * Get the pull parser of the current thread, set to read the XML from the given reader. Callers must be done with
+     * it before this method is called again on the same thread.
+     *
+     * @param reader the reader
+     * @return the {@link XmlPullParser}
+     */
+    static XmlPullParser pullParser(Reader reader) throws XmlPullParserException {
+        MXParser parser = PULL_PARSER.get();
+        parser.setInput(reader);
+        return parser;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        // The JDK implementation, regardless of the StAX implementations in the classpath
+        XMLInputFactory factory = XMLInputFactory.newDefaultFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
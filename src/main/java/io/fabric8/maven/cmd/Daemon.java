@@ -0,0 +1,308 @@
+package io.fabric8.maven.cmd;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the commands of {@link Main} in a long-running process, so that they don't pay for starting a JVM and loading
+ * the model, parsers and writer every time.
+ * <p>
+ * Commands are read one per line, with the same arguments as on the command line separated by tabs, or by spaces when
+ * the line has no tab. Each command is answered by a single line: {@code OK}, {@code FAILED <n>} when n POM files
+ * could not be processed, or {@code ERROR <message>}. Relative paths are resolved against the working directory of the
+ * daemon, until {@code cd <absolute directory>} changes it for the following commands. {@code shutdown} stops the
+ * daemon, once the commands in progress are finished.
+ * <p>
+ * By default the commands are read from the standard input and answered on the standard output until the input is
+ * closed. With {@code --port <port>} (0 for any free port), the daemon listens on the loopback interface instead and
+ * serves each connection on its own thread. As any local user can connect to it, the first line of a connection must
+ * be a random token, which the daemon writes to a file only readable by its owner: {@code --token-file <file>}, or
+ * {@code ~/.mmh/daemon-<port>.token} by default. The daemon then prints {@code LISTENING <port> <token file>}, and
+ * deletes the file when it is shut down. A connection that doesn't send the token within
+ * {@value #TOKEN_TIMEOUT_MILLIS} milliseconds is closed, and at most {@value #MAX_CONNECTIONS} connections are served
+ * at the same time, with as many waiting for their turn: the others are closed right away.
+ * {@code src/main/scripts/mmh-client} is a thin client for it.
+ */
+final class Daemon {
+
+    private static final String SHUTDOWN = "shutdown";
+
+    private static final String CD = "cd";
+
+    static final int TOKEN_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * Longer than any token, so that a connection can't fill the memory with its first line
+     */
+    static final int MAX_TOKEN_LENGTH = 256;
+
+    static final int MAX_CONNECTIONS = 16;
+
+    private Daemon() {
+        throw new IllegalAccessError("Utility class");
+    }
+
+    /**
+     * Run the daemon until it is shut down
+     *
+     * @param args the arguments following the {@code serve} command
+     */
+    static void run(String... args) {
+        try {
+            if (args.length == 0) {
+                PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+                serve(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)), out);
+            } else if ((args.length == 2 || args.length == 4 && "--token-file".equals(args[2]))
+                    && "--port".equals(args[0])) {
+                try (ServerSocket server = new ServerSocket(Integer.parseInt(args[1]), 50,
+                        InetAddress.getLoopbackAddress())) {
+                    Path tokenFile = args.length == 4 ? Paths.get(args[3]).toAbsolutePath()
+                            : Paths.get(System.getProperty("user.home"), ".mmh",
+                                    "daemon-" + server.getLocalPort() + ".token");
+                    String token = newToken();
+                    writeToken(tokenFile, token);
+                    try {
+                        System.out.println("LISTENING " + server.getLocalPort() + " " + tokenFile);
+                        System.out.flush();
+                        listen(server, token);
+                    } finally {
+                        Files.deleteIfExists(tokenFile);
+                    }
+                }
+            } else {
+                throw new AssertionError("Invalid arguments:" + String.join(" ", args));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while serving commands", e);
+        }
+    }
+
+    /**
+     * @return a random token to authenticate the connections with
+     */
+    static String newToken() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Write the token to a file that only the owner of the daemon can read
+     */
+    static void writeToken(Path tokenFile, String token) throws IOException {
+        Path directory = tokenFile.getParent();
+        boolean posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+        if (!Files.isDirectory(directory)) {
+            if (posix) {
+                Files.createDirectories(directory,
+                        PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            } else {
+                Files.createDirectories(directory);
+            }
+        }
+        // A new file, so that its permissions are never those of a file left by someone else
+        Files.deleteIfExists(tokenFile);
+        if (posix) {
+            Files.createFile(tokenFile, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(tokenFile);
+            File file = tokenFile.toFile();
+            if (!file.setReadable(false, false) || !file.setReadable(true, true)) {
+                throw new IOException("Could not restrict the permissions of " + tokenFile);
+            }
+        }
+        Files.write(tokenFile, token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Serve every connection to the server that sends the token first, until one of them sends {@code shutdown}. The
+     * commands being executed by the other connections are finished before returning, but not the ones they send next.
+     *
+     * @param server a bound server socket, closed on shutdown
+     * @param token the token expected as the first line of every connection
+     */
+    static void listen(ServerSocket server, String token) throws IOException {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_CONNECTIONS, MAX_CONNECTIONS, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_CONNECTIONS), runnable -> {
+                    Thread thread = new Thread(runnable, "mmh-daemon");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        Set<Socket> connections = ConcurrentHashMap.newKeySet();
+        try {
+            while (!server.isClosed()) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketException e) {
+                    if (server.isClosed()) {
+                        // Shut down by a client
+                        break;
+                    }
+                    throw e;
+                }
+                connections.add(socket);
+                try {
+                    executor.execute(() -> {
+                        try {
+                            handle(socket, server, token);
+                        } finally {
+                            connections.remove(socket);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    connections.remove(socket);
+                    // Too many connections
+                    socket.close();
+                }
+            }
+        } finally {
+            // Interrupting the commands could leave the POM files of a bulk run partly replaced, so let them finish
+            executor.shutdown();
+            for (Socket connection : connections) {
+                try {
+                    // The connection ends once it has answered its current command, if any
+                    connection.shutdownInput();
+                } catch (IOException e) {
+                    // Already closed
+                }
+            }
+            try {
+                while (!executor.awaitTermination(1L, TimeUnit.MINUTES)) {
+                    System.err.println("Waiting for the commands in progress to finish");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void handle(Socket socket, ServerSocket server, String token) {
+        try (socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                PrintWriter out = new PrintWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setSoTimeout(TOKEN_TIMEOUT_MILLIS);
+            String line = readToken(in);
+            if (line == null) {
+                return;
+            }
+            if (!MessageDigest.isEqual(line.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+                out.println("ERROR Invalid token");
+                out.flush();
+                return;
+            }
+            // An authenticated client may keep the connection open between its commands
+            socket.setSoTimeout(0);
+            if (serve(in, out)) {
+                server.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Could not serve " + socket.getRemoteSocketAddress() + ": " + e);
+        }
+    }
+
+    /**
+     * Read the first line of a connection, without reading more than {@link #MAX_TOKEN_LENGTH} characters
+     *
+     * @return the line, cut after {@link #MAX_TOKEN_LENGTH} characters, or null if the input is closed first
+     */
+    static String readToken(BufferedReader in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c == -1) {
+                return null;
+            }
+            if (line.length() == MAX_TOKEN_LENGTH) {
+                break;
+            }
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * Execute the commands read from the input until it is closed or {@code shutdown} is read
+     *
+     * @param in the commands, one per line
+     * @param out where the outcome of each command is written
+     * @return true if {@code shutdown} was read
+     */
+    static boolean serve(BufferedReader in, PrintWriter out) throws IOException {
+        Path directory = Paths.get("").toAbsolutePath();
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            boolean shutdown = SHUTDOWN.equals(line.trim());
+            String answer;
+            if (shutdown) {
+                answer = "OK";
+            } else if (line.startsWith(CD + "\t") || line.startsWith(CD + " ")) {
+                Path path = Paths.get(line.substring(CD.length() + 1).trim());
+                if (path.isAbsolute() && Files.isDirectory(path)) {
+                    directory = path;
+                    answer = "OK";
+                } else {
+                    answer = "ERROR Not an absolute directory: " + path;
+                }
+            } else {
+                answer = execute(line, directory);
+            }
+            out.println(answer);
+            out.flush();
+            if (shutdown) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param line a command and its arguments
+     * @param directory the absolute path of the directory relative paths are resolved against
+     * @return the outcome of the command
+     */
+    static String execute(String line, Path directory) {
+        String[] args = line.indexOf('\t') >= 0 ? line.split("\t") : line.trim().split("\\s+");
+        if (!Main.isCommand(args[0])) {
+            return "ERROR Unknown command: " + args[0];
+        }
+        try {
+            int failures = Main.run(directory, args);
+            return failures == 0 ? "OK" : "FAILED " + failures;
+        } catch (RuntimeException | AssertionError e) {
+            // Keep the answer on a single line
+            return "ERROR " + e.toString().replaceAll("\\R", " ");
+        }
+    }
+}
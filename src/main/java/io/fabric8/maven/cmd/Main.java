@@ -1,81 +1,184 @@
 package io.fabric8.maven.cmd;
 
-import static java.util.Arrays.copyOfRange;
-
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Parent;
-import org.apache.maven.model.merge.ModelMerger;
 
 import io.fabric8.maven.Maven;
+import io.fabric8.maven.PomDocument;
+import io.fabric8.maven.PomWriteBatch;
+import io.fabric8.maven.WriteOptions;
 import io.fabric8.maven.merge.SmartModelMerger;
 
 /**
+ * Command line entry point.
+ * <p>
+ * The target of every command is either a POM file, or a directory or glob pattern (such as
+ * {@code modules/&#42;&#42;/pom.xml}) to apply the command to every matching POM file in a single run. A directory
+ * matches all the pom.xml files below it, skipping hidden and {@code target} directories. Those files are processed
+ * by {@code --jobs N} workers (the number of processors by default), and a file that fails is reported without
+ * stopping the others.
+ * <p>
+ * {@code merge} gives precedence to the target over the sources, unless {@code --source-dominant} (or
+ * {@code -DsourceDominant=true} for every command) is given.
+ * <p>
+ * POM files are replaced atomically, and those matched by a directory or pattern only once all of them were processed,
+ * so that an interrupted run never leaves a truncated file. With {@code -Dfsync=true} they are also flushed to the
+ * storage device.
+ * <p>
+ * {@code serve} keeps running and reads the commands from the standard input or a local port, see {@link Daemon}.
+ *
  * @author <a href="mailto:ggastald@redhat.com">George Gastaldi</a>
  */
 public class Main {
 
+    private static final String POM_FILE_NAME = "pom.xml";
+
     public static void main(String[] args) {
         if (args.length < 1) {
             System.err.println("You need to specify at least one command");
             System.exit(1);
         }
+        if (run(args) > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Run a command
+     *
+     * @param commandLine the command and its arguments
+     * @return the number of POM files that could not be processed
+     */
+    static int run(String... commandLine) {
+        return run(Paths.get("").toAbsolutePath(), commandLine);
+    }
+
+    /**
+     * Run a command, resolving its relative paths against the given directory
+     *
+     * @param directory the absolute path of the working directory
+     * @param commandLine the command and its arguments
+     * @return the number of POM files that could not be processed
+     */
+    static int run(Path directory, String... commandLine) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(commandLine));
+        int jobs = removeJobsOption(arguments);
+        boolean sourceDominant = arguments.remove("--source-dominant") || Boolean.getBoolean("sourceDominant");
+        String[] args = arguments.toArray(new String[0]);
 
         switch (args[0]) {
             case "merge":
                 if (args.length < 3)
                     throw new AssertionError("Insufficient arguments:" + args.length);
-                merge(args[1], copyOfRange(args, 2, args.length));
-                break;
+                return merge(directory, args[1], jobs, sourceDominant, Arrays.copyOfRange(args, 2, args.length));
             case "update-gav":
                 if (args.length != 5)
                     throw new AssertionError("Insufficient arguments:" + args.length);
-                updateGAV(args[1], args[2], args[3], args[4]);
-                break;
+                return forEachTarget(directory, args[1], jobs,
+                        model -> updateGAV(model, args[2], args[3], args[4]));
             case "update-parent-gav":
                 if (args.length != 4)
                     throw new AssertionError("Insufficient arguments:" + args.length);
-                updateParentGAV(args[1], args[2], args[3]);
-                break;
+                return forEachTarget(directory, args[1], jobs,
+                        model -> updateParentGAV(model, args[2], args[3]));
             case "update-metadata":
                 if (args.length != 4)
                     throw new AssertionError("Insufficient arguments:" + args.length);
-                updateMetadata(args[1], args[2], args[3]);
-                break;
+                return forEachTarget(directory, args[1], jobs,
+                        model -> updateMetadata(model, args[2], args[3]));
+            case "serve":
+                Daemon.run(Arrays.copyOfRange(args, 1, args.length));
+                return 0;
             default:
-                break;
+                return 0;
         }
+    }
 
+    /**
+     * @param name the name of a command
+     * @return true if it is a command updating POM files
+     */
+    static boolean isCommand(String name) {
+        switch (name) {
+            case "merge":
+            case "update-gav":
+            case "update-parent-gav":
+            case "update-metadata":
+                return true;
+            default:
+                return false;
+        }
     }
 
-    private static void merge(String target, String... sources) {
-        Path targetPath = Paths.get(target).toAbsolutePath();
-        Model targetModel = Maven.readModel(targetPath);
-        boolean sourceDominant = Boolean.getBoolean("sourceDominant");
-        ModelMerger merger = new SmartModelMerger();
+    private static int removeJobsOption(List<String> arguments) {
+        int jobs = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < arguments.size(); i++) {
+            String argument = arguments.get(i);
+            String value = null;
+            if (argument.equals("--jobs") || argument.equals("-j")) {
+                if (i + 1 >= arguments.size())
+                    throw new AssertionError("Missing value for " + argument);
+                value = arguments.remove(i + 1);
+            } else if (argument.startsWith("--jobs=")) {
+                value = argument.substring("--jobs=".length());
+            }
+            if (value != null) {
+                arguments.remove(i--);
+                try {
+                    jobs = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    throw new AssertionError("Invalid number of jobs:" + value);
+                }
+                if (jobs < 1)
+                    throw new AssertionError("Invalid number of jobs:" + jobs);
+            }
+        }
+        return jobs;
+    }
 
+    private static int merge(Path directory, String target, int jobs, boolean sourceDominant, String... sources) {
+        List<Model> sourceModels = new ArrayList<>(sources.length);
         for (String source : sources) {
-            Path sourcePath = Paths.get(source).toAbsolutePath();
-            Model sourceModel = Maven.readModel(sourcePath);
-            merger.merge(targetModel, sourceModel, sourceDominant, null);
+            sourceModels.add(Maven.readModel(directory.resolve(source)));
         }
-        Maven.writeModel(targetModel);
+        return forEachTarget(directory, target, jobs, model -> {
+            List<Model> clones = new ArrayList<>(sourceModels.size());
+            for (Model source : sourceModels) {
+                // The merger may share the source objects with the target
+                clones.add(source.clone());
+            }
+            new SmartModelMerger().merge(model, clones, sourceDominant, null);
+        });
     }
 
-    private static void updateGAV(String target, String groupId, String artifactId, String version) {
-        Path targetPath = Paths.get(target).toAbsolutePath();
-        Model targetModel = Maven.readModel(targetPath);
+    private static void updateGAV(Model targetModel, String groupId, String artifactId, String version) {
         targetModel.setGroupId(groupId);
         targetModel.setArtifactId(artifactId);
         targetModel.setVersion(version);
-        Maven.writeModel(targetModel);
     }
 
-    private static void updateParentGAV(String target, String groupId, String artifactId) {
-        Path targetPath = Paths.get(target).toAbsolutePath();
-        Model targetModel = Maven.readModel(targetPath);
+    private static void updateParentGAV(Model targetModel, String groupId, String artifactId) {
         Parent parent = targetModel.getParent();
         if (parent == null) {
             parent = new Parent();
@@ -83,14 +186,121 @@ public class Main {
         }
         parent.setGroupId(groupId);
         parent.setArtifactId(artifactId);
-        Maven.writeModel(targetModel);
     }
 
-    private static void updateMetadata(String target, String name, String description) {
-        Path targetPath = Paths.get(target).toAbsolutePath();
-        Model targetModel = Maven.readModel(targetPath);
+    private static void updateMetadata(Model targetModel, String name, String description) {
         targetModel.setName(name);
         targetModel.setDescription(description);
-        Maven.writeModel(targetModel);
+    }
+
+    /**
+     * Apply the update to the target, or to every POM file it matches
+     *
+     * @return the number of POM files that could not be processed
+     */
+    private static int forEachTarget(Path directory, String target, int jobs, Consumer<Model> update) {
+        WriteOptions options = WriteOptions.builder().atomic(true).sync(Boolean.getBoolean("fsync")).build();
+        if (!isPattern(target) && !Files.isDirectory(directory.resolve(target))) {
+            PomDocument document = updatePom(directory.resolve(target), update);
+            document.write(null, options);
+            return 0;
+        }
+        List<Path> poms = findPoms(directory, target);
+        try (PomWriteBatch batch = PomWriteBatch.create(options)) {
+            int failures = 0;
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(jobs, Math.max(poms.size(), 1)));
+            try {
+                List<Future<?>> futures = new ArrayList<>(poms.size());
+                for (Path pom : poms) {
+                    futures.add(executor.submit(() -> batch.write(updatePom(pom, update))));
+                }
+                for (int i = 0; i < futures.size(); i++) {
+                    try {
+                        futures.get(i).get();
+                    } catch (ExecutionException e) {
+                        failures++;
+                        System.err.println("Could not process " + poms.get(i) + ": " + e.getCause().getMessage());
+                        e.getCause().printStackTrace();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while processing " + target, e);
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            // Replace the POM files only once all of them were processed
+            batch.commit();
+            return failures;
+        }
+    }
+
+    private static PomDocument updatePom(Path pom, Consumer<Model> update) {
+        PomDocument document = PomDocument.read(pom);
+        update.accept(document.getModel());
+        return document;
+    }
+
+    private static boolean isPattern(String target) {
+        return indexOfPattern(target) >= 0;
+    }
+
+    private static int indexOfPattern(String target) {
+        for (int i = 0; i < target.length(); i++) {
+            if ("*?[{".indexOf(target.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the POM files matched by a directory or a glob pattern, in a stable order
+     *
+     * @param directory the absolute path of the directory a relative target is resolved against
+     * @param target a directory or a glob pattern
+     */
+    static List<Path> findPoms(Path directory, String target) {
+        int patternIndex = indexOfPattern(target);
+        Path base;
+        Predicate<Path> filter;
+        if (patternIndex < 0) {
+            base = directory.resolve(target);
+            filter = path -> path.getFileName().toString().equals(POM_FILE_NAME);
+        } else {
+            // Walk from the deepest directory that doesn't contain a pattern
+            int separator = Math.max(target.lastIndexOf('/', patternIndex),
+                    target.lastIndexOf(File.separatorChar, patternIndex));
+            base = directory.resolve(separator < 0 ? "" : target.substring(0, separator + 1));
+            PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + target);
+            // A relative pattern matches the paths relative to the directory
+            boolean relative = !new File(target).isAbsolute();
+            filter = file -> matcher.matches(relative ? directory.relativize(file) : file);
+        }
+        List<Path> poms = new ArrayList<>();
+        try {
+            Files.walkFileTree(base, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    String name = dir.getFileName() == null ? "" : dir.getFileName().toString();
+                    if (!dir.equals(base) && (name.startsWith(".") || name.equals("target"))) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile() && filter.test(file)) {
+                        poms.add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list POM files in " + base, e);
+        }
+        poms.sort(null);
+        return poms;
     }
 }
@@ -0,0 +1,83 @@
+package io.fabric8.maven.merge;
+
+import java.util.Objects;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Plugin;
+
+/**
+ * The {@code groupId:artifactId} coordinates identifying a dependency or a plugin when merging models.
+ * <p>
+ * The hash is computed once, and no {@code groupId:artifactId} string is built, so looking up thousands of keys
+ * doesn't allocate more than the keys themselves.
+ */
+public final class CoordinateKey {
+
+    private final String groupId;
+
+    private final String artifactId;
+
+    private final int hash;
+
+    private CoordinateKey(String groupId, String artifactId) {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.hash = 31 * Objects.hashCode(groupId) + Objects.hashCode(artifactId);
+    }
+
+    /**
+     * @param groupId the groupId, may be null
+     * @param artifactId the artifactId, may be null
+     * @return the key of the given coordinates
+     */
+    public static CoordinateKey of(String groupId, String artifactId) {
+        return new CoordinateKey(groupId, artifactId);
+    }
+
+    /**
+     * @param dependency the dependency
+     * @return the key of the dependency, ignoring its type and classifier
+     */
+    public static CoordinateKey of(Dependency dependency) {
+        return new CoordinateKey(dependency.getGroupId(), dependency.getArtifactId());
+    }
+
+    /**
+     * @param plugin the plugin
+     * @return the key of the plugin, as {@link Plugin#getKey()}
+     */
+    public static CoordinateKey of(Plugin plugin) {
+        return new CoordinateKey(plugin.getGroupId(), plugin.getArtifactId());
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CoordinateKey)) {
+            return false;
+        }
+        CoordinateKey other = (CoordinateKey) o;
+        return hash == other.hash && Objects.equals(artifactId, other.artifactId)
+                && Objects.equals(groupId, other.groupId);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return groupId + ":" + artifactId;
+    }
+}
@@ -1,10 +1,14 @@
 package io.fabric8.maven.merge;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 
@@ -12,9 +16,12 @@ import org.apache.maven.model.Dependency;
 import org.apache.maven.model.InputLocation;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.ModelBase;
+import org.apache.maven.model.Plugin;
 import org.apache.maven.model.Profile;
 import org.apache.maven.model.merge.ModelMerger;
 
+import io.fabric8.maven.ModelIOListener;
+import io.fabric8.maven.ModelIOListeners;
 import io.fabric8.maven.SortedProperties;
 
 /**
@@ -22,9 +29,34 @@ import io.fabric8.maven.SortedProperties;
  */
 public class SmartModelMerger extends ModelMerger {
 
+    /**
+     * Key of the context holding the target of {@link #merge(Model, List, boolean, Map)}
+     */
+    private static final Object MERGED_AT_ONCE = new Object();
+
+    private final ModelIOListener listener;
+
+    public SmartModelMerger() {
+        this(null);
+    }
+
+    /**
+     * @param listener the listener notified of the merges, in addition to the ones registered with
+     *        {@link ModelIOListeners}, may be null
+     */
+    public SmartModelMerger(ModelIOListener listener) {
+        this.listener = listener;
+    }
+
     @Override
     protected Object getDependencyKey(Dependency dependency) {
-        return dependency.getGroupId() + ":" + dependency.getArtifactId();
+        return CoordinateKey.of(dependency);
+    }
+
+    @Override
+    protected Object getPluginKey(Plugin plugin) {
+        // Plugin.equals and hashCode build the groupId:artifactId string on every call
+        return CoordinateKey.of(plugin);
     }
 
     @Override
@@ -38,20 +70,142 @@ public class SmartModelMerger extends ModelMerger {
         }
     }
 
+    /**
+     * Merge all the sources into the target, with the same result as merging them one after the other with
+     * {@link #merge(Model, Model, boolean, Map)}.
+     * <p>
+     * The properties, modules and profiles of the target are rebuilt by every merge, so they are merged once from all
+     * the sources instead of once per source. The other sections only grow by the size of each source.
+     *
+     * @param target the model to merge into
+     * @param sources the models to merge, in the order they would be merged one after the other
+     * @param sourceDominant whether the sources take precedence over the target, and the later sources over the
+     *        earlier ones
+     * @param hints the context of the merge, may be null
+     */
+    public void merge(Model target, List<? extends Model> sources, boolean sourceDominant, Map<?, ?> hints) {
+        Objects.requireNonNull(target, "target cannot be null");
+        ModelIOListener listener = ModelIOListeners.of(this.listener);
+        Path pom = target.getPomFile() != null ? target.getPomFile().toPath() : null;
+        long start = 0L;
+        if (listener != null) {
+            listener.phaseStarted(ModelIOListener.Phase.MERGE, pom);
+            start = System.nanoTime();
+        }
+        List<Model> models = new ArrayList<>(sources.size());
+        for (Model source : sources) {
+            if (source != null) {
+                models.add(source);
+                Map<Object, Object> context = newContext(hints);
+                context.put(MERGED_AT_ONCE, target);
+                mergeModel(target, source, sourceDominant, context);
+            }
+        }
+        if (!models.isEmpty()) {
+            mergeProperties(target, models, sourceDominant);
+            mergeModules(target, models);
+            mergeProfiles(target, models, sourceDominant, newContext(hints));
+        }
+        if (listener != null) {
+            listener.elementsProcessed(ModelIOListener.Phase.MERGE, pom, models.size());
+            listener.phaseEnded(ModelIOListener.Phase.MERGE, pom, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void merge(Model target, Model source, boolean sourceDominant, Map<?, ?> hints) {
+        ModelIOListener listener = ModelIOListeners.of(this.listener);
+        if (listener == null) {
+            super.merge(target, source, sourceDominant, hints);
+            return;
+        }
+        Path pom = target != null && target.getPomFile() != null ? target.getPomFile().toPath() : null;
+        listener.phaseStarted(ModelIOListener.Phase.MERGE, pom);
+        long start = System.nanoTime();
+        super.merge(target, source, sourceDominant, hints);
+        listener.elementsProcessed(ModelIOListener.Phase.MERGE, pom, source != null ? 1 : 0);
+        listener.phaseEnded(ModelIOListener.Phase.MERGE, pom, System.nanoTime() - start);
+    }
+
+    private static Map<Object, Object> newContext(Map<?, ?> hints) {
+        Map<Object, Object> context = new HashMap<>();
+        if (hints != null) {
+            context.putAll(hints);
+        }
+        return context;
+    }
+
+    /**
+     * @return true if the section of the target is left to {@link #merge(Model, List, boolean, Map)}
+     */
+    private static boolean isMergedAtOnce(ModelBase target, Map<Object, Object> context) {
+        return context != null && context.get(MERGED_AT_ONCE) == target;
+    }
+
     @Override
     protected void mergeModelBase_Properties(ModelBase target, ModelBase source, boolean sourceDominant,
             Map<Object, Object> context) {
+        if (!isMergedAtOnce(target, context)) {
+            mergeProperties(target, Collections.singletonList(source), sourceDominant);
+        }
+    }
+
+    private static void mergeProperties(ModelBase target, List<? extends ModelBase> sources, boolean sourceDominant) {
+        List<ModelBase> models = new ArrayList<>(sources.size() + 1);
+        models.add(target);
+        models.addAll(sources);
+        List<InputLocation> locations = new ArrayList<>(models.size());
+        for (ModelBase model : models) {
+            locations.add(model.getLocation("properties"));
+        }
+        if (!sourceDominant) {
+            Collections.reverse(models);
+        }
+        // From the lowest to the highest precedence
         Properties merged = new SortedProperties();
-        if (sourceDominant) {
-            merged.putAll(target.getProperties());
-            merged.putAll(source.getProperties());
-        } else {
-            merged.putAll(source.getProperties());
-            merged.putAll(target.getProperties());
+        for (ModelBase model : models) {
+            merged.putAll(model.getProperties());
         }
         target.setProperties(merged);
-        target.setLocation("properties", InputLocation.merge(target.getLocation("properties"),
-                source.getLocation("properties"), sourceDominant));
+        target.setLocation("properties", mergeLocations(locations, sourceDominant));
+    }
+
+    /**
+     * The equivalent of folding {@link InputLocation#merge(InputLocation, InputLocation, boolean)} over the locations
+     *
+     * @param locations the locations of the target and of the sources, in the order they are merged
+     * @param sourceDominant whether the later locations take precedence
+     * @return the merged location
+     */
+    private static InputLocation mergeLocations(List<InputLocation> locations, boolean sourceDominant) {
+        List<InputLocation> present = new ArrayList<>(locations.size());
+        List<Map<Object, InputLocation>> maps = new ArrayList<>(locations.size());
+        for (InputLocation location : locations) {
+            if (location != null) {
+                present.add(location);
+                if (location.getLocations() != null) {
+                    maps.add(location.getLocations());
+                }
+            }
+        }
+        if (present.size() <= 1) {
+            return present.isEmpty() ? null : present.get(0);
+        }
+        InputLocation first = present.get(0);
+        InputLocation result = new InputLocation(first.getLineNumber(), first.getColumnNumber(), first.getSource());
+        if (maps.size() == 1) {
+            result.setLocations(maps.get(0));
+        } else if (!maps.isEmpty()) {
+            if (!sourceDominant) {
+                Collections.reverse(maps);
+            }
+            Map<Object, InputLocation> merged = new LinkedHashMap<>();
+            for (Map<Object, InputLocation> map : maps) {
+                merged.putAll(map);
+            }
+            result.setLocations(merged);
+        }
+        return result;
     }
 
     @Override
@@ -62,8 +216,17 @@ public class SmartModelMerger extends ModelMerger {
     @Override
     protected void mergeModelBase_Modules(ModelBase target, ModelBase source, boolean sourceDominant,
             Map<Object, Object> context) {
+        if (!isMergedAtOnce(target, context)) {
+            mergeModules(target, Collections.singletonList(source));
+        }
+    }
+
+    private static void mergeModules(ModelBase target, List<? extends ModelBase> sources) {
+        // Each merge puts the modules of the source before the ones of the target
         Set<String> set = new LinkedHashSet<>();
-        set.addAll(source.getModules());
+        for (int i = sources.size() - 1; i >= 0; i--) {
+            set.addAll(sources.get(i).getModules());
+        }
         set.addAll(target.getModules());
         target.setModules(new ArrayList<>(set));
     }
@@ -71,17 +234,26 @@ public class SmartModelMerger extends ModelMerger {
     @Override
     protected void mergeModel_Profiles(Model target, Model source, boolean sourceDominant,
             Map<Object, Object> context) {
-        List<Profile> src = source.getProfiles();
-        if (!src.isEmpty()) {
-            List<Profile> tgt = target.getProfiles();
-            Map<Object, Profile> merged = new LinkedHashMap<>((src.size() + tgt.size()) * 2);
+        if (!isMergedAtOnce(target, context)) {
+            mergeProfiles(target, Collections.singletonList(source), sourceDominant, context);
+        }
+    }
 
-            for (Profile element : tgt) {
-                Object key = getProfileKey(element);
-                merged.put(key, element);
-            }
+    private void mergeProfiles(Model target, List<? extends Model> sources, boolean sourceDominant,
+            Map<Object, Object> context) {
+        if (sources.stream().allMatch(source -> source.getProfiles().isEmpty())) {
+            return;
+        }
+        List<Profile> tgt = target.getProfiles();
+        Map<Object, Profile> merged = new LinkedHashMap<>(tgt.size() * 2);
+
+        for (Profile element : tgt) {
+            Object key = getProfileKey(element);
+            merged.put(key, element);
+        }
 
-            for (Profile element : src) {
+        for (Model source : sources) {
+            for (Profile element : source.getProfiles()) {
                 Object key = getProfileKey(element);
                 if (sourceDominant || !merged.containsKey(key)) {
                     Profile targetProfile = merged.get(key);
@@ -94,8 +266,8 @@ public class SmartModelMerger extends ModelMerger {
                     }
                 }
             }
-
-            target.setProfiles(new ArrayList<>(merged.values()));
         }
+
+        target.setProfiles(new ArrayList<>(merged.values()));
     }
 }
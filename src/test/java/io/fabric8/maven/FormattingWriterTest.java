@@ -0,0 +1,136 @@
+package io.fabric8.maven;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class FormattingWriterTest {
+
+    @ParameterizedTest
+    @MethodSource("formats")
+    void should_format_like_parsing_the_serialized_model(XMLFormat format) throws Exception {
+        for (Model model : models()) {
+            assertThat(formatWhileWriting(model, format)).isEqualTo(formatAfterWriting(model, format));
+        }
+    }
+
+    @Test
+    void should_not_support_formats_without_indentation() {
+        assertThat(FormattingWriter.supports(XMLFormat.builder().build())).isTrue();
+        assertThat(FormattingWriter.supports(XMLFormat.builder().indent(null).build())).isFalse();
+        assertThat(FormattingWriter.supports(XMLFormat.builder().lineSeparator("").build())).isFalse();
+    }
+
+    @Test
+    void should_write_new_pom_formatted_in_one_pass() throws Exception {
+        Model model = tricky();
+        XMLFormat format = XMLFormat.builder().indent("    ").insertLineBreakBetweenMajorSections().build();
+        StringWriter writer = new StringWriter();
+
+        Maven.writeModel(model, (Path) null, () -> writer, format);
+
+        assertThat(writer.toString()).isEqualTo(formatAfterWriting(model, format))
+                .startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<project xmlns=");
+    }
+
+    static Stream<Arguments> formats() {
+        List<Arguments> formats = new ArrayList<>();
+        for (XMLFormat.TextMode textMode : XMLFormat.TextMode.values()) {
+            for (String indent : new String[] { "  ", "    ", "\t" }) {
+                for (String lineSeparator : new String[] { "\n", "\r\n" }) {
+                    for (boolean lineBreaks : new boolean[] { false, true }) {
+                        formats.add(Arguments.of(XMLFormat.builder()
+                                .textMode(textMode)
+                                .indent(indent)
+                                .lineSeparator(lineSeparator)
+                                .insertLineBreakBetweenMajorSections(lineBreaks)
+                                .build()));
+                    }
+                }
+            }
+        }
+        return formats.stream();
+    }
+
+    private static List<Model> models() throws URISyntaxException {
+        List<Model> models = new ArrayList<>();
+        for (String pom : new String[] { "all-elements-pom.xml", "full-pom.xml", "spaces-pom.xml", "attributes.xml",
+                "no-spaces-pom.xml", "extra-line-pom.xml" }) {
+            models.add(Maven.readModel(Paths.get(FormattingWriterTest.class.getResource(pom).toURI())));
+        }
+        models.add(new Model());
+        models.add(tricky());
+        return models;
+    }
+
+    private static Model tricky() {
+        Model model = new Model();
+        model.setModelVersion("4.0.0");
+        model.setGroupId("org.acme");
+        model.setArtifactId("tricky");
+        model.setName("  Tom & \"Jerry\" <cartoons> ]]> 🚀  ");
+        model.setDescription("\n  First line\r\n  second line\r  third\tline  \n");
+        model.addProperty("empty", "");
+        model.addProperty("blank", "   ");
+        Xpp3Dom configuration = new Xpp3Dom("configuration");
+        Xpp3Dom preserved = new Xpp3Dom("preserved");
+        preserved.setAttribute("xml:space", "preserve");
+        Xpp3Dom nested = new Xpp3Dom("nested");
+        nested.setValue("  kept  ");
+        preserved.addChild(nested);
+        Xpp3Dom restored = new Xpp3Dom("restored");
+        restored.setAttribute("xml:space", "default");
+        Xpp3Dom child = new Xpp3Dom("child");
+        child.setValue("  trimmed  ");
+        restored.addChild(child);
+        preserved.addChild(restored);
+        configuration.addChild(preserved);
+        Xpp3Dom attributes = new Xpp3Dom("attributes");
+        attributes.setAttribute("value", "a \"quoted\" <value> & a\ttab\nnewline\rreturn 🚀");
+        configuration.addChild(attributes);
+        configuration.addChild(new Xpp3Dom("empty"));
+        Plugin plugin = new Plugin();
+        plugin.setArtifactId("maven-tricky-plugin");
+        plugin.setConfiguration(configuration);
+        Build build = new Build();
+        build.addPlugin(plugin);
+        model.setBuild(build);
+        return model;
+    }
+
+    private static String formatWhileWriting(Model model, XMLFormat format) throws Exception {
+        StringWriter writer = new StringWriter();
+        FormattingWriter formattingWriter = new FormattingWriter(writer, format);
+        new MavenXpp3Writer().write(formattingWriter, model);
+        formattingWriter.finish();
+        return writer.toString();
+    }
+
+    private static String formatAfterWriting(Model model, XMLFormat format) throws Exception {
+        StringWriter serialized = new StringWriter();
+        new MavenXpp3Writer().write(serialized, model);
+        StringWriter writer = new StringWriter();
+        format.format(new StringReader(serialized.toString()), writer);
+        return writer.toString();
+    }
+}
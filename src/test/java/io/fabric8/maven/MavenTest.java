@@ -2,31 +2,48 @@ package io.fabric8.maven;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatRuntimeException;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.apache.maven.model.Dependency;
+import org.apache.maven.model.InputLocation;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Parent;
 import org.apache.maven.model.Scm;
+import org.apache.maven.model.io.xpp3.MavenXpp3WriterEx;
 import org.approvaltests.Approvals;
 import org.assertj.core.api.Assertions;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.xmlunit.assertj.XmlAssert;
 
@@ -36,6 +53,14 @@ import org.xmlunit.assertj.XmlAssert;
 @DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
 class MavenTest {
 
+    private static final String POM_WITH_COMMENTS_AND_CDATA_IN_VALUES = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<project>\n"
+            + "  <modelVersion>4.0.0</modelVersion>\n"
+            + "  <groupId>org.acme<!-- the group --></groupId>\n"
+            + "  <artifactId><![CDATA[my-app]]></artifactId>\n"
+            + "  <version>1.0</version>\n"
+            + "</project>\n";
+
     @Test
     void should_read_model() throws Exception {
         Path basePom = Paths.get(getClass().getResource("full-pom.xml").toURI());
@@ -66,6 +91,125 @@ class MavenTest {
         assertThat(model.getArtifactId()).isEqualTo("maven-model-helper");
     }
 
+    @Test
+    void should_read_model_using_bytes() throws Exception {
+        byte[] contents = Files.readAllBytes(Paths.get(getClass().getResource("spaces-pom.xml").toURI()));
+        Model model = Maven.readModel(contents);
+        assertThat(model.getArtifactId()).isEqualTo("quarkus-github-app");
+        assertThat(model.getProperties()).isInstanceOf(SortedProperties.class);
+    }
+
+    @Test
+    void should_read_model_using_byte_buffer() throws Exception {
+        byte[] contents = Files.readAllBytes(Paths.get(getClass().getResource("spaces-pom.xml").toURI()));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(contents.length + 10);
+        buffer.put(new byte[10]).put(contents).flip().position(10);
+        Model model = Maven.readModel(buffer);
+        assertThat(model.getArtifactId()).isEqualTo("quarkus-github-app");
+        assertThat(buffer.position()).isEqualTo(10);
+    }
+
+    @Test
+    void should_read_model_mapped() throws Exception {
+        Path pom = Paths.get(getClass().getResource("spaces-pom.xml").toURI());
+        Model model = Maven.readModelMapped(pom);
+        assertThat(model.getArtifactId()).isEqualTo("quarkus-github-app");
+        assertThat(model.getPomFile()).isEqualTo(pom.toFile());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "all-elements-pom.xml", "full-pom.xml", "spaces-pom.xml", "attributes.xml",
+            "parent/parent-pom.xml" })
+    void should_read_same_model_with_stax_parser(String inputFile) throws Exception {
+        Path pom = Paths.get(getClass().getResource(inputFile).toURI());
+        ReadOptions options = ReadOptions.builder().parser(ReadOptions.Parser.STAX).build();
+        Model expected = Maven.readModel(pom);
+        Model model = Maven.readModel(pom, options);
+        assertThat(model.getProperties()).isInstanceOf(SortedProperties.class);
+        assertThat(model.getModelEncoding()).isEqualTo(expected.getModelEncoding());
+        assertThat(model.getPomFile()).isEqualTo(pom.toFile());
+        // Compares every value and input location
+        assertThat(writeWithLocations(model)).isEqualTo(writeWithLocations(expected)).contains("<!--");
+    }
+
+    @Test
+    void should_read_configuration_with_stax_parser() throws Exception {
+        Path pom = Paths.get(getClass().getResource("all-elements-pom.xml").toURI());
+        Model model = Maven.readModel(pom, ReadOptions.builder().parser(ReadOptions.Parser.STAX).build());
+        Xpp3Dom configuration = (Xpp3Dom) model.getBuild().getPlugins().get(0).getExecutions().get(0)
+                .getConfiguration();
+        assertThat(configuration).isEqualTo(
+                Maven.readModel(pom).getBuild().getPlugins().get(0).getExecutions().get(0).getConfiguration());
+        assertThat(configuration.getChild("skip").getValue()).isNull();
+        assertThat(configuration.getChild("blank").getValue()).isEmpty();
+        assertThat(configuration.getChild("message").getValue()).isEqualTo("  kept as is  ");
+        assertThat(configuration.getChild("items").getAttribute("combine.children")).isEqualTo("append");
+        assertThat(model.getProperties()).containsEntry("alpha", "first").containsEntry("empty", "");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "<projectt/>",
+            "<project><groupId>a</groupId><groupId>b</groupId></project>",
+            "<project><unknown/></project>",
+            "<project unknown=\"true\"/>",
+            "<project><modules><mod>a</mod></modules></project>",
+            "<project><name>a<b/></name></project>",
+            "<project>text<name>a</name></project>",
+            "<project>"
+    })
+    void should_fail_read_invalid_model_with_stax_parser(String content) {
+        ReadOptions options = ReadOptions.builder().parser(ReadOptions.Parser.STAX).build();
+        assertThatRuntimeException().isThrownBy(() -> Maven.readModel(new StringReader(content)));
+        assertThatRuntimeException().isThrownBy(() -> Maven.readModel(new StringReader(content), options))
+                .withMessage("Error while parsing pom.xml");
+    }
+
+    @ParameterizedTest
+    @EnumSource(ReadOptions.Parser.class)
+    void should_read_model_without_locations(ReadOptions.Parser parser) throws Exception {
+        Path pom = Paths.get(getClass().getResource("all-elements-pom.xml").toURI());
+        Model expected = Maven.readModel(pom);
+        Model model = Maven.readModel(pom, ReadOptions.builder().parser(parser).trackLocations(false).build());
+        StringWriter expectedWriter = new StringWriter();
+        Maven.writeModel(expected, expectedWriter);
+        StringWriter writer = new StringWriter();
+        Maven.writeModel(model, writer);
+        assertThat(writer.toString()).isEqualTo(expectedWriter.toString());
+        assertThat(model.getProperties()).isInstanceOf(SortedProperties.class);
+        assertThat(model.getLocation("")).isNull();
+        assertThat(model.getLocation("groupId")).isNull();
+        assertThat(model.getLocation("properties")).isNull();
+        assertThat(model.getBuild().getLocation("")).isNull();
+        Xpp3Dom configuration = (Xpp3Dom) model.getBuild().getPlugins().get(0).getExecutions().get(0)
+                .getConfiguration();
+        assertThat(configuration.getInputLocation()).isNull();
+        // Still needed by SmartModelMerger
+        assertThat(model.getLocation("packaging")).isNotNull();
+    }
+
+    @ParameterizedTest
+    @EnumSource(ReadOptions.Parser.class)
+    void should_not_locate_missing_packaging_without_locations(ReadOptions.Parser parser) {
+        Model model = Maven.readModel(new StringReader("<project><artifactId>app</artifactId></project>"),
+                ReadOptions.builder().parser(parser).trackLocations(false).build());
+        assertThat(model.getArtifactId()).isEqualTo("app");
+        assertThat(model.getLocation("packaging")).isNull();
+    }
+
+    private static String writeWithLocations(Model model) throws IOException {
+        MavenXpp3WriterEx writer = new MavenXpp3WriterEx();
+        writer.setStringFormatter(new InputLocation.StringFormatter() {
+            @Override
+            public String toString(InputLocation location) {
+                return location.getLineNumber() + ":" + location.getColumnNumber();
+            }
+        });
+        StringWriter sw = new StringWriter();
+        writer.write(sw, model);
+        return sw.toString();
+    }
+
     @Test
     void should_fail_read_model_using_bogus_inputstream() {
         assertThatRuntimeException().isThrownBy(() -> Maven.readModel(new ByteArrayInputStream("<projectt>".getBytes())));
@@ -406,4 +550,235 @@ class MavenTest {
         Maven.writeModel(model, sw);
         Approvals.verify(sw.toString(), Approvals.NAMES.withParameters(inputFile));
     }
+
+    @Test
+    void should_not_write_unchanged_model(@TempDir Path tempDir) throws Exception {
+        Path pom = tempDir.resolve("pom.xml");
+        Files.copy(Paths.get(getClass().getResource("spaces-pom.xml").toURI()), pom);
+        Model model = Maven.readModel(pom);
+        assertThat(Maven.writeModelIfChanged(model, pom)).isTrue();
+        FileTime lastModified = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(pom, lastModified);
+
+        assertThat(Maven.writeModelIfChanged(model, pom)).isFalse();
+        assertThat(Files.getLastModifiedTime(pom)).isEqualTo(lastModified);
+
+        model.setVersion("2.0");
+        assertThat(Maven.writeModelIfChanged(model, pom)).isTrue();
+        assertThat(Files.getLastModifiedTime(pom)).isNotEqualTo(lastModified);
+        assertThat(Maven.readModel(pom).getVersion()).isEqualTo("2.0");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void should_write_model_atomically(boolean sync, @TempDir Path tempDir) throws Exception {
+        Path pom = tempDir.resolve("pom.xml");
+        Files.copy(Paths.get(getClass().getResource("spaces-pom.xml").toURI()), pom);
+        Model model = Maven.readModel(pom);
+        model.setVersion("2.0");
+        StringWriter expected = new StringWriter();
+        Maven.writeModel(model, pom, expected);
+
+        Maven.writeModel(model, pom, WriteOptions.builder().atomic(true).sync(sync).build());
+
+        assertThat(pom).hasContent(expected.toString());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).containsExactly(pom);
+        }
+    }
+
+    @Test
+    void should_keep_permissions_and_links_when_writing_atomically(@TempDir Path tempDir) throws Exception {
+        assumeTrue(Files.getFileStore(tempDir).supportsFileAttributeView("posix"));
+        Path pom = Files.createDirectory(tempDir.resolve("project")).resolve("pom.xml");
+        Maven.writeModel(Maven.newModel(), pom);
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-rw-r--");
+        Files.setPosixFilePermissions(pom, permissions);
+        Path link = Files.createSymbolicLink(tempDir.resolve("pom.xml"), pom);
+        Model model = Maven.readModel(link);
+        model.setArtifactId("example");
+
+        Maven.writeModel(model, link, WriteOptions.builder().atomic(true).build());
+
+        assertThat(Files.isSymbolicLink(link)).isTrue();
+        assertThat(Maven.readModel(pom).getArtifactId()).isEqualTo("example");
+        assertThat(Files.getPosixFilePermissions(pom)).isEqualTo(permissions);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void should_write_model_to_utf8_bytes(boolean formatted) throws Exception {
+        Path pom = Paths.get(getClass().getResource("spaces-pom.xml").toURI());
+        XMLFormat format = formatted ? XMLFormat.builder().insertLineBreakBetweenMajorSections().build() : null;
+        for (Path path : new Path[] { pom, null }) {
+            Model model = Maven.readModel(pom);
+            model.setDescription("Caf\u00e9 \u2615 \uD83D\uDE80");
+            StringWriter sw = new StringWriter();
+            Maven.writeModel(model, path, () -> sw, format);
+            byte[] expected = sw.toString().getBytes(StandardCharsets.UTF_8);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            Maven.writeModel(model, path, out, format);
+            byte[] bytes = Maven.writeModelToBytes(model, path, format);
+            ByteBuffer buffer = Maven.writeModelToByteBuffer(model, path, format);
+
+            assertThat(out.toByteArray()).isEqualTo(expected);
+            assertThat(bytes).isEqualTo(expected);
+            assertThat(buffer).isEqualTo(ByteBuffer.wrap(expected));
+            assertThat(buffer.position()).isZero();
+        }
+    }
+
+    @Test
+    void should_write_if_changed_on_new_file(@TempDir Path tempDir) {
+        Path pom = tempDir.resolve("pom.xml");
+        Model model = Maven.newModel();
+        model.setArtifactId("example");
+        assertThat(Maven.writeModelIfChanged(model, pom)).isTrue();
+        assertThat(Maven.readModel(pom).getArtifactId()).isEqualTo("example");
+    }
+
+    @Test
+    void should_splice_unchanged_content(@TempDir Path tempDir) throws Exception {
+        Path pom = tempDir.resolve("pom.xml");
+        String source = Files.readString(Paths.get(getClass().getResource("spaces-pom.xml").toURI()))
+                .replace("<modelVersion>", "<!-- kept as is -->\n    <modelVersion >");
+        Files.writeString(pom, source);
+        Model model = Maven.readModel(pom);
+        model.getParent().setVersion("1000-SNAPSHOT");
+
+        StringWriter sw = new StringWriter();
+        Maven.writeModel(model, sw, XMLFormat.builder().spliceUnchangedContent().build());
+        assertThat(sw).hasToString(source.replace("999-SNAPSHOT", "1000-SNAPSHOT"));
+    }
+
+    @Test
+    void should_splice_unchanged_content_with_crlf(@TempDir Path tempDir) throws Exception {
+        Path pom = tempDir.resolve("pom.xml");
+        String source = Files.readString(Paths.get(getClass().getResource("spaces-pom.xml").toURI()))
+                .replace("\n", "\r\n");
+        Files.writeString(pom, source);
+        Model model = Maven.readModel(pom);
+        XMLFormat format = XMLFormat.builder().spliceUnchangedContent().build();
+
+        StringWriter unchanged = new StringWriter();
+        Maven.writeModel(model, unchanged, format);
+        assertThat(unchanged).hasToString(source);
+
+        model.setDescription("Automate GitHub tasks & more");
+        StringWriter changed = new StringWriter();
+        Maven.writeModel(model, changed, format);
+        assertThat(changed).hasToString(source.replace("with a GitHub App", "&amp; more"));
+    }
+
+    @Test
+    void should_splice_new_dependency() throws Exception {
+        URL resource = getClass().getResource("spaces-pom.xml");
+        Path pom = Paths.get(resource.toURI());
+        Model model = Maven.readModel(pom);
+
+        Dependency dep = new Dependency();
+        dep.setGroupId("org.example");
+        dep.setArtifactId("example");
+        dep.setVersion("1.0");
+        model.getDependencies().add(dep);
+
+        StringWriter sw = new StringWriter();
+        Maven.writeModel(model, sw, XMLFormat.builder().spliceUnchangedContent().build());
+        Approvals.verify(sw.toString());
+    }
+
+    @Test
+    void should_replace_comments_and_cdata_in_values(@TempDir Path tempDir) throws Exception {
+        Path pom = tempDir.resolve("pom.xml");
+        Files.writeString(pom, POM_WITH_COMMENTS_AND_CDATA_IN_VALUES);
+        Model model = Maven.readModel(pom);
+        model.setVersion("2.0");
+
+        Maven.writeModel(model, pom);
+
+        Approvals.verify(Files.readString(pom));
+    }
+
+    @Test
+    void should_splice_comments_and_cdata_in_unchanged_values(@TempDir Path tempDir) throws Exception {
+        Path pom = tempDir.resolve("pom.xml");
+        Files.writeString(pom, POM_WITH_COMMENTS_AND_CDATA_IN_VALUES);
+        Model model = Maven.readModel(pom);
+        model.setVersion("2.0");
+
+        Maven.writeModel(model, pom, XMLFormat.builder().spliceUnchangedContent().build());
+
+        assertThat(pom).hasContent(POM_WITH_COMMENTS_AND_CDATA_IN_VALUES.replace("<version>1.0", "<version>2.0"));
+    }
+
+    @Test
+    void should_keep_layout_when_updating_properties(@TempDir Path tempDir) throws Exception {
+        Path pom = tempDir.resolve("pom.xml");
+        Files.writeString(pom, "<project>\n"
+                + "  <properties>\n"
+                + "    <b>1</b>\n"
+                + "    <!-- comment -->\n"
+                + "    <a>1</a>\n"
+                + "    <c>1</c>\n"
+                + "    <d>1</d>\n"
+                + "  </properties>\n"
+                + "</project>\n");
+        Model model = Maven.readModel(pom);
+        model.getProperties().remove("a");
+        model.getProperties().remove("d");
+        model.addProperty("b", "2");
+        model.addProperty("e", "1");
+        model.addProperty("f", "1");
+        StringWriter writer = new StringWriter();
+        Maven.writeModel(model, pom, writer);
+        Approvals.verify(writer.toString());
+    }
+
+    @Test
+    void should_update_many_properties(@TempDir Path tempDir) throws Exception {
+        Path pom = tempDir.resolve("pom.xml");
+        Model model = Maven.newModel();
+        model.setArtifactId("example");
+        IntStream.range(0, 2000).forEach(i -> model.addProperty("property-" + i, String.valueOf(i)));
+        Maven.writeModel(model, pom);
+
+        Model updated = Maven.readModel(pom);
+        IntStream.range(0, 2000).filter(i -> i % 3 == 0).forEach(i -> updated.getProperties().remove("property-" + i));
+        IntStream.range(0, 2000).filter(i -> i % 3 == 1).forEach(i -> updated.addProperty("property-" + i, "updated"));
+        IntStream.range(2000, 2500).forEach(i -> updated.addProperty("property-" + i, String.valueOf(i)));
+        Maven.writeModel(updated, pom);
+
+        assertThat(Maven.readModel(pom).getProperties()).isEqualTo(updated.getProperties());
+    }
+
+    @Test
+    void should_read_models(@TempDir Path tempDir) throws Exception {
+        Path spaces = Paths.get(getClass().getResource("spaces-pom.xml").toURI());
+        Path full = Paths.get(getClass().getResource("full-pom.xml").toURI());
+        Path missing = tempDir.resolve("missing.xml");
+        Path bogus = Files.writeString(tempDir.resolve("bogus.xml"), "<project>");
+
+        List<ModelReadResult> results = Maven.readModels(List.of(spaces, missing, full, bogus));
+
+        assertThat(results).extracting(ModelReadResult::getPath).containsExactly(spaces, missing, full, bogus);
+        assertThat(results).extracting(ModelReadResult::isSuccess).containsExactly(true, false, true, false);
+        assertThat(results.get(0).getModel().getArtifactId()).isEqualTo("quarkus-github-app");
+        assertThat(results.get(2).getModelOrThrow().getPomFile()).isEqualTo(full.toFile());
+        assertThat(results.get(1).getError()).isInstanceOf(UncheckedIOException.class);
+        assertThatRuntimeException().isThrownBy(results.get(3)::getModelOrThrow);
+    }
+
+    @Test
+    void should_read_models_on_executor() throws Exception {
+        Path spaces = Paths.get(getClass().getResource("spaces-pom.xml").toURI());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<ModelReadResult> results = Maven.readModels(Collections.nCopies(50, spaces), executor);
+            assertThat(results).hasSize(50).allSatisfy(result -> assertThat(result.getModelOrThrow().getArtifactId())
+                    .isEqualTo("quarkus-github-app"));
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package io.fabric8.maven;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.maven.model.Model;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ModelCacheTest {
+
+    @Test
+    void should_return_copies_of_cached_model(@TempDir Path tempDir) throws Exception {
+        Path pom = copy("spaces-pom.xml", tempDir.resolve("pom.xml"));
+        ModelCache cache = new ModelCache(10);
+
+        Model first = cache.readModel(pom);
+        first.setVersion("changed");
+        first.getProperties().setProperty("changed", "true");
+        Model second = cache.readModel(pom);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getVersion()).isNull();
+        assertThat(second.getProperties()).isInstanceOf(SortedProperties.class).doesNotContainKey("changed");
+        assertThat(second.getPomFile()).isEqualTo(pom.toFile());
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void should_read_changed_file_again(@TempDir Path tempDir) throws Exception {
+        Path pom = copy("spaces-pom.xml", tempDir.resolve("pom.xml"));
+        ModelCache cache = new ModelCache(10);
+        cache.readModel(pom);
+
+        Model model = Maven.readModel(pom);
+        model.setVersion("2.0");
+        Maven.writeModel(model, pom);
+
+        assertThat(cache.readModel(pom).getVersion()).isEqualTo("2.0");
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.getHitCount()).isZero();
+    }
+
+    @Test
+    void should_evict_least_recently_used(@TempDir Path tempDir) throws Exception {
+        Path first = copy("spaces-pom.xml", tempDir.resolve("first.xml"));
+        Path second = copy("no-spaces-pom.xml", tempDir.resolve("second.xml"));
+        Path third = copy("full-pom.xml", tempDir.resolve("third.xml"));
+        ModelCache cache = new ModelCache(2);
+
+        cache.readModel(first);
+        cache.readModel(second);
+        cache.readModel(first);
+        cache.readModel(third);
+        cache.readModel(first);
+        cache.readModel(second);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(cache.getMissCount()).isEqualTo(4);
+        assertThat(cache.getEvictionCount()).isEqualTo(2);
+    }
+
+    private Path copy(String resource, Path target) throws Exception {
+        return Files.copy(Paths.get(getClass().getResource(resource).toURI()), target);
+    }
+}
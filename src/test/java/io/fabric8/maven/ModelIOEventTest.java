@@ -0,0 +1,66 @@
+package io.fabric8.maven;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.maven.model.Model;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ModelIOEventTest {
+
+    @Test
+    void should_not_notify_without_recording() {
+        assertThat(ModelIOListeners.of(null)).isNull();
+    }
+
+    @Test
+    void should_record_events_of_reading_and_writing(@TempDir Path tempDir) throws Exception {
+        Path pom = Files.write(tempDir.resolve("pom.xml"), Arrays.asList(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+                "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">",
+                "  <modelVersion>4.0.0</modelVersion>",
+                "  <groupId>org.acme</groupId>",
+                "  <artifactId>app</artifactId>",
+                "  <version>1.0</version>",
+                "</project>"));
+        long size = Files.size(pom);
+        Path recordingFile = tempDir.resolve("recording.jfr");
+        // The event type is looked up before the recording starts
+        assertThat(ModelIOListeners.of(null)).isNull();
+        try (Recording recording = new Recording()) {
+            recording.enable("io.fabric8.maven.ModelIO");
+            recording.start();
+            Model model = Maven.readModel(pom);
+            model.setVersion("2.0");
+            Maven.writeModel(model, pom);
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(event -> event.getEventType().getName().equals("io.fabric8.maven.ModelIO"))
+                .collect(Collectors.toList());
+        assertThat(events).extracting(event -> event.getString("phase"))
+                .containsExactly("READ", "PARSE", "DETECT_INDENTATION", "UPDATE", "OUTPUT");
+        assertThat(events).extracting(event -> event.getString("pom")).containsOnly(pom.toString());
+        assertThat(events.get(0).getLong("bytesRead")).isEqualTo(size);
+        assertThat(events.get(1).getLong("bytesRead")).isEqualTo(size);
+        assertThat(events.get(1).getInt("elements")).isEqualTo(5);
+        assertThat(events.get(3).getInt("mutations")).isEqualTo(1);
+        assertThat(events.get(4).getLong("bytesWritten")).isEqualTo(Files.size(pom));
+        assertThat(ModelIOListeners.of(null)).isNull();
+    }
+}
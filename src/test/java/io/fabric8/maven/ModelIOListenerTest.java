@@ -0,0 +1,155 @@
+package io.fabric8.maven;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.model.Model;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.fabric8.maven.ModelIOListener.Phase;
+import io.fabric8.maven.merge.SmartModelMerger;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ModelIOListenerTest {
+
+    @Test
+    void should_notify_phases_of_updating_an_existing_pom(@TempDir Path tempDir) throws Exception {
+        Path pom = createPom(tempDir);
+        Model model = Maven.readModel(pom);
+        model.setVersion("2.0");
+        RecordingListener listener = new RecordingListener();
+
+        Maven.writeModel(model, pom, null, WriteOptions.builder().atomic(true).listener(listener).build());
+
+        assertThat(listener.events).containsExactly(
+                "started PARSE",
+                "elements PARSE",
+                "ended PARSE",
+                "started DETECT_INDENTATION",
+                "ended DETECT_INDENTATION",
+                "started UPDATE",
+                "mutations UPDATE 1",
+                "ended UPDATE",
+                "started OUTPUT",
+                "ended OUTPUT",
+                "started STORE",
+                "ended STORE");
+        assertThat(listener.poms).containsOnly(pom);
+        assertThat(listener.bytesWritten).isEqualTo(Files.size(pom));
+    }
+
+    @Test
+    void should_notify_output_of_a_new_pom() {
+        RecordingListener listener = new RecordingListener();
+        ModelIOListeners.register(listener);
+        try {
+            Maven.writeModelToBytes(Maven.newModel(), null, XMLFormat.builder().build());
+        } finally {
+            assertThat(ModelIOListeners.unregister(listener)).isTrue();
+        }
+
+        assertThat(listener.events).containsExactly("started OUTPUT", "ended OUTPUT");
+        assertThat(ModelIOListeners.of(null)).isNull();
+    }
+
+    @Test
+    void should_collect_metrics_of_registered_listener(@TempDir Path tempDir) throws Exception {
+        Path pom = createPom(tempDir);
+        long size = Files.size(pom);
+        ModelIOMetrics metrics = new ModelIOMetrics();
+        ModelIOListeners.register(metrics);
+        try {
+            Model model = Maven.readModel(pom);
+            model.setVersion("2.0");
+            Maven.writeModel(model, pom);
+            Maven.readModel(new StringReader(new String(Files.readAllBytes(pom))));
+        } finally {
+            ModelIOListeners.unregister(metrics);
+        }
+
+        ModelIOMetrics.PhaseMetrics read = metrics.getPhase(Phase.READ);
+        assertThat(read.getCount()).isEqualTo(2);
+        assertThat(read.getMaxNanos()).isPositive().isLessThanOrEqualTo(read.getTotalNanos());
+        assertThat(metrics.getPhase(Phase.PARSE).getElements()).isPositive();
+        assertThat(metrics.getPhase(Phase.UPDATE).getMutations()).isEqualTo(1);
+        assertThat(metrics.getPhase(Phase.UPDATE).getSlowestPom()).isEqualTo(pom);
+        assertThat(metrics.getPhase(Phase.MERGE).getCount()).isZero();
+        // Read once by readModel and once by writeModel, the contents read from a Reader are not counted
+        assertThat(metrics.getBytesRead()).isEqualTo(2 * size);
+        assertThat(metrics.getBytesWritten()).isEqualTo(Files.size(pom));
+        assertThat(metrics.toString()).contains("READ: count=2", "UPDATE: count=1").doesNotContain("MERGE");
+
+        metrics.reset();
+        assertThat(metrics.getPhase(Phase.READ).getCount()).isZero();
+        assertThat(metrics.getBytesRead()).isZero();
+    }
+
+    @Test
+    void should_notify_merges() {
+        RecordingListener listener = new RecordingListener();
+        SmartModelMerger merger = new SmartModelMerger(listener);
+
+        merger.merge(Maven.newModel(), Arrays.asList(Maven.newModel(), Maven.newModel()), true, null);
+        merger.merge(Maven.newModel(), Maven.newModel(), true, Collections.emptyMap());
+
+        assertThat(listener.events).containsExactly(
+                "started MERGE", "elements MERGE 2", "ended MERGE",
+                "started MERGE", "elements MERGE 1", "ended MERGE");
+    }
+
+    private static Path createPom(Path directory) throws Exception {
+        return Files.write(directory.resolve("pom.xml"), Arrays.asList(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+                "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">",
+                "  <modelVersion>4.0.0</modelVersion>",
+                "  <groupId>org.acme</groupId>",
+                "  <artifactId>app</artifactId>",
+                "  <version>1.0</version>",
+                "</project>"));
+    }
+
+    private static final class RecordingListener implements ModelIOListener {
+
+        private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+        private final List<Path> poms = Collections.synchronizedList(new ArrayList<>());
+
+        private long bytesWritten;
+
+        @Override
+        public void phaseStarted(Phase phase, Path pom) {
+            events.add("started " + phase);
+            poms.add(pom);
+        }
+
+        @Override
+        public void phaseEnded(Phase phase, Path pom, long nanos) {
+            events.add("ended " + phase);
+        }
+
+        @Override
+        public void bytesWritten(Path pom, long bytes) {
+            bytesWritten += bytes;
+        }
+
+        @Override
+        public void elementsProcessed(Phase phase, Path pom, int count) {
+            events.add(phase == Phase.PARSE ? "elements PARSE" : "elements " + phase + " " + count);
+        }
+
+        @Override
+        public void elementsMutated(Phase phase, Path pom, int count) {
+            events.add("mutations " + phase + " " + count);
+        }
+    }
+}
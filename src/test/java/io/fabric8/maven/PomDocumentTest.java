@@ -0,0 +1,140 @@
+package io.fabric8.maven;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PomDocumentTest {
+
+    @Test
+    void should_read_model_and_indentation() throws Exception {
+        Path pom = Paths.get(getClass().getResource("spaces-pom.xml").toURI());
+        PomDocument document = PomDocument.read(pom);
+        assertThat(document.getPath()).isEqualTo(pom);
+        assertThat(document.getIndentation()).isEqualTo("    ");
+        assertThat(document.getModel().getArtifactId()).isEqualTo("quarkus-github-app");
+        assertThat(document.getModel().getPomFile()).isEqualTo(pom.toFile());
+        assertThat(document.getModel().getProperties()).isInstanceOf(SortedProperties.class);
+    }
+
+    @Test
+    void should_write_same_output_as_maven_write_model() throws Exception {
+        Path pom = Paths.get(getClass().getResource("spaces-pom.xml").toURI());
+        Dependency dep = new Dependency();
+        dep.setGroupId("org.example");
+        dep.setArtifactId("example");
+        dep.setVersion("1.0");
+
+        Model model = Maven.readModel(pom);
+        model.addDependency(dep);
+        StringWriter expected = new StringWriter();
+        Maven.writeModel(model, expected);
+
+        PomDocument document = PomDocument.read(pom);
+        document.getModel().addDependency(dep);
+        StringWriter actual = new StringWriter();
+        document.write(actual);
+
+        assertThat(actual).hasToString(expected.toString());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        document.write(bytes);
+        assertThat(bytes.toString(StandardCharsets.UTF_8)).isEqualTo(expected.toString());
+    }
+
+    @Test
+    void should_not_read_the_file_again_on_write(@TempDir Path tempDir) throws Exception {
+        Path pom = tempDir.resolve("pom.xml");
+        Files.copy(Paths.get(getClass().getResource("spaces-pom.xml").toURI()), pom);
+        PomDocument document = PomDocument.read(pom);
+        Files.delete(pom);
+
+        document.getModel().setVersion("2.0");
+        document.write();
+
+        assertThat(Maven.readModel(pom).getVersion()).isEqualTo("2.0");
+        assertThat(XMLFormat.findIndentation(pom)).isEqualTo("    ");
+    }
+
+    @Test
+    void should_write_repeatedly(@TempDir Path tempDir) throws Exception {
+        Path pom = tempDir.resolve("pom.xml");
+        Files.copy(Paths.get(getClass().getResource("spaces-pom.xml").toURI()), pom);
+        PomDocument document = PomDocument.read(pom);
+
+        document.getModel().setVersion("2.0");
+        document.write();
+        document.getModel().setVersion("3.0");
+        document.write();
+
+        assertThat(Maven.readModel(pom).getVersion()).isEqualTo("3.0");
+    }
+
+    @Test
+    void should_write_only_if_changed(@TempDir Path tempDir) throws Exception {
+        Path pom = tempDir.resolve("pom.xml");
+        Files.copy(Paths.get(getClass().getResource("spaces-pom.xml").toURI()), pom);
+        PomDocument document = PomDocument.read(pom);
+        document.write();
+        Files.delete(pom);
+
+        assertThat(document.writeIfChanged()).isFalse();
+        assertThat(pom).doesNotExist();
+
+        document.getModel().setVersion("2.0");
+        assertThat(document.writeIfChanged()).isTrue();
+        assertThat(Maven.readModel(pom).getVersion()).isEqualTo("2.0");
+        assertThat(document.writeIfChanged()).isFalse();
+    }
+
+    @Test
+    void should_splice_unchanged_content_repeatedly(@TempDir Path tempDir) throws Exception {
+        Path pom = tempDir.resolve("pom.xml");
+        Files.copy(Paths.get(getClass().getResource("spaces-pom.xml").toURI()), pom);
+        String source = Files.readString(pom);
+        XMLFormat format = XMLFormat.builder().spliceUnchangedContent().build();
+        PomDocument document = PomDocument.read(pom);
+
+        assertThat(document.writeIfChanged(format)).isFalse();
+        document.getModel().setName("First");
+        document.write(format);
+        document.getModel().setName("Second");
+        document.write(format);
+
+        assertThat(pom).hasContent(source.replace("Quarkus - GitHub App - Runtime", "Second"));
+    }
+
+    @Test
+    void should_write_again_after_a_failed_write(@TempDir Path tempDir) throws Exception {
+        Path directory = Files.createDirectories(tempDir.resolve("module"));
+        Path pom = directory.resolve("pom.xml");
+        Maven.writeModel(Maven.newModel(), pom);
+        PomDocument document = PomDocument.read(pom);
+        document.getModel().setVersion("2.0");
+        String contents = Files.readString(pom);
+        Files.delete(pom);
+        Files.delete(directory);
+
+        assertThatThrownBy(() -> document.write(null, WriteOptions.builder().atomic(true).build()))
+                .isInstanceOf(UncheckedIOException.class);
+
+        Files.createDirectories(directory);
+        Files.writeString(pom, contents);
+        assertThat(document.writeIfChanged()).isTrue();
+        assertThat(Maven.readModel(pom).getVersion()).isEqualTo("2.0");
+    }
+}
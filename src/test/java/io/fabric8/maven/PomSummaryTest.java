@@ -0,0 +1,73 @@
+package io.fabric8.maven;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatRuntimeException;
+
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+
+import org.apache.maven.model.Model;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PomSummaryTest {
+
+    @Test
+    void should_read_same_fields_as_model() throws Exception {
+        Path pom = Paths.get(getClass().getResource("all-elements-pom.xml").toURI());
+        Model model = Maven.readModel(pom);
+
+        PomSummary summary = PomSummary.read(pom);
+
+        assertThat(summary.getPath()).isEqualTo(pom);
+        assertThat(summary.getGroupId()).isEqualTo(model.getGroupId());
+        assertThat(summary.getArtifactId()).isEqualTo(model.getArtifactId());
+        assertThat(summary.getVersion()).isEqualTo(model.getVersion());
+        assertThat(summary.getPackaging()).isEqualTo("jar");
+        assertThat(summary.getParent().getId()).isEqualTo(model.getParent().getId());
+        assertThat(summary.getParent().getRelativePath()).isEqualTo(model.getParent().getRelativePath());
+        assertThat(summary.getModules()).containsExactly("core", "cli");
+    }
+
+    @Test
+    void should_stop_before_build_section() {
+        // Everything after the header is invalid and must not be read
+        PomSummary summary = PomSummary.read(new StringReader("<project>\n"
+                + "  <artifactId>app</artifactId>\n"
+                + "  <version>1.0</version>\n"
+                + "  <build><unclosed></build>\n"
+                + "  <packaging>pom</packaging>\n"
+                + "</project>"), EnumSet.allOf(PomSummary.Field.class));
+
+        assertThat(summary.getArtifactId()).isEqualTo("app");
+        assertThat(summary.getGroupId()).isNull();
+        assertThat(summary.getPackaging()).isNull();
+        assertThat(summary.getParent()).isNull();
+        assertThat(summary.getModules()).isEmpty();
+    }
+
+    @Test
+    void should_stop_once_requested_fields_are_read() {
+        PomSummary summary = PomSummary.read(new StringReader("<project>\n"
+                + "  <description>skipped <b>markup</b></description>\n"
+                + "  <artifactId>app</artifactId>\n"
+                + "  <groupId>org.example</groupId>\n"
+                + "  <version>1.0</version><unclosed>\n"
+                + "</project>"), EnumSet.of(PomSummary.Field.GROUP_ID, PomSummary.Field.ARTIFACT_ID));
+
+        assertThat(summary.getGroupId()).isEqualTo("org.example");
+        assertThat(summary.getArtifactId()).isEqualTo("app");
+        assertThat(summary.getVersion()).isNull();
+    }
+
+    @Test
+    void should_fail_on_other_root_element() {
+        assertThatRuntimeException()
+                .isThrownBy(() -> PomSummary.read(new StringReader("<settings/>"), EnumSet.allOf(PomSummary.Field.class)))
+                .withMessage("Error while parsing pom.xml");
+    }
+}
@@ -0,0 +1,146 @@
+package io.fabric8.maven;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.apache.maven.model.Model;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PomWriteBatchTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void should_replace_poms_on_commit(boolean sync, @TempDir Path tempDir) throws Exception {
+        List<Path> poms = createPoms(tempDir, 3);
+
+        try (PomWriteBatch batch = PomWriteBatch.create(WriteOptions.builder().sync(sync).build())) {
+            for (Path pom : poms) {
+                PomDocument document = PomDocument.read(pom);
+                document.getModel().setVersion("2.0");
+                batch.write(document);
+            }
+            assertThat(batch.size()).isEqualTo(3);
+            assertThat(Maven.readModel(poms.get(0)).getVersion()).isEqualTo("1.0");
+
+            batch.commit();
+
+            assertThat(batch.size()).isZero();
+        }
+        for (Path pom : poms) {
+            assertThat(Maven.readModel(pom).getVersion()).isEqualTo("2.0");
+        }
+        assertThat(listFiles(tempDir)).hasSize(3);
+    }
+
+    @Test
+    void should_leave_poms_untouched_without_commit(@TempDir Path tempDir) throws Exception {
+        List<Path> poms = createPoms(tempDir, 2);
+        String contents = Files.readString(poms.get(0));
+
+        try (PomWriteBatch batch = PomWriteBatch.create(WriteOptions.DEFAULT)) {
+            Model model = Maven.readModel(poms.get(0));
+            model.setVersion("2.0");
+            batch.writeModel(model, poms.get(0));
+            assertThat(listFiles(tempDir.resolve("module-0"))).hasSize(2);
+        }
+
+        assertThat(poms.get(0)).hasContent(contents);
+        assertThat(listFiles(tempDir.resolve("module-0"))).containsExactly(poms.get(0));
+    }
+
+    @Test
+    void should_write_document_again_after_closing_without_commit(@TempDir Path tempDir) throws Exception {
+        Path pom = createPoms(tempDir, 1).get(0);
+        PomDocument document = PomDocument.read(pom);
+        document.getModel().setVersion("2.0");
+
+        try (PomWriteBatch batch = PomWriteBatch.create(WriteOptions.DEFAULT)) {
+            batch.write(document);
+        }
+
+        assertThat(Maven.readModel(pom).getVersion()).isEqualTo("1.0");
+        assertThat(document.writeIfChanged()).isTrue();
+        assertThat(Maven.readModel(pom).getVersion()).isEqualTo("2.0");
+    }
+
+    @Test
+    void should_keep_last_write_of_a_pom(@TempDir Path tempDir) throws Exception {
+        Path pom = createPoms(tempDir, 1).get(0);
+        PomDocument document = PomDocument.read(pom);
+
+        try (PomWriteBatch batch = PomWriteBatch.create(WriteOptions.DEFAULT)) {
+            document.getModel().setVersion("2.0");
+            batch.write(document);
+            document.getModel().setVersion("3.0");
+            batch.write(document);
+            assertThat(batch.size()).isEqualTo(1);
+            batch.commit();
+        }
+
+        assertThat(Maven.readModel(pom).getVersion()).isEqualTo("3.0");
+        assertThat(listFiles(pom.getParent())).containsExactly(pom);
+        assertThat(document.writeIfChanged()).isFalse();
+    }
+
+    @Test
+    void should_write_in_parallel(@TempDir Path tempDir) throws Exception {
+        List<Path> poms = createPoms(tempDir, 20);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (PomWriteBatch batch = PomWriteBatch.create(WriteOptions.DEFAULT)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Path pom : poms) {
+                futures.add(executor.submit(() -> {
+                    PomDocument document = PomDocument.read(pom);
+                    document.getModel().setVersion("2.0");
+                    batch.write(document);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            batch.commit();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (Path pom : poms) {
+            assertThat(Maven.readModel(pom).getVersion()).isEqualTo("2.0");
+        }
+    }
+
+    private static List<Path> createPoms(Path tempDir, int count) throws Exception {
+        List<Path> poms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Path pom = Files.createDirectory(tempDir.resolve("module-" + i)).resolve("pom.xml");
+            Model model = Maven.newModel();
+            model.setGroupId("org.acme");
+            model.setArtifactId("module-" + i);
+            model.setVersion("1.0");
+            Maven.writeModel(model, pom);
+            poms.add(pom);
+        }
+        return poms;
+    }
+
+    private static List<Path> listFiles(Path directory) throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            List<Path> list = new ArrayList<>();
+            files.filter(Files::isRegularFile).forEach(list::add);
+            return list;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package io.fabric8.maven;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringWriter;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Properties;
+
+import org.apache.maven.model.Model;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class SortedPropertiesTest {
+
+    @Test
+    void should_iterate_in_key_order() {
+        Properties properties = new SortedProperties();
+        properties.setProperty("charlie", "3");
+        properties.setProperty("alpha", "1");
+        properties.setProperty("bravo", "2");
+
+        assertThat(properties.keySet()).containsExactly("alpha", "bravo", "charlie");
+        assertThat(properties.values()).containsExactly("1", "2", "3");
+        assertThat(properties.stringPropertyNames()).containsExactlyInAnyOrder("alpha", "bravo", "charlie");
+        assertThat(Collections.list(properties.keys())).containsExactly("alpha", "bravo", "charlie");
+        assertThat(properties).hasToString("{alpha=1, bravo=2, charlie=3}");
+    }
+
+    @Test
+    void should_store_in_key_order() throws Exception {
+        Properties properties = new SortedProperties();
+        properties.setProperty("b", "2");
+        properties.setProperty("a", "1");
+        StringWriter writer = new StringWriter();
+
+        properties.store(writer, null);
+
+        assertThat(writer.toString()).endsWith("a=1" + System.lineSeparator() + "b=2" + System.lineSeparator());
+    }
+
+    @Test
+    void should_share_views_with_properties() {
+        Properties properties = new SortedProperties();
+        properties.setProperty("a", "1");
+        properties.setProperty("b", "2");
+
+        properties.keySet().remove("a");
+
+        assertThat(properties).doesNotContainKey("a").containsEntry("b", "2").hasSize(1);
+        assertThat(properties.keySet()).isSameAs(properties.keySet());
+    }
+
+    @Test
+    void should_fall_back_to_defaults() {
+        Properties defaults = new Properties();
+        defaults.setProperty("a", "default");
+        defaults.setProperty("b", "default");
+        Properties properties = new SortedProperties(defaults);
+        properties.setProperty("a", "value");
+
+        assertThat(properties.getProperty("a")).isEqualTo("value");
+        assertThat(properties.getProperty("b")).isEqualTo("default");
+        assertThat(properties.stringPropertyNames()).containsExactlyInAnyOrder("a", "b");
+        assertThat(properties.getProperty("missing", "fallback")).isEqualTo("fallback");
+        assertThat(properties).isEqualTo(Collections.singletonMap("a", "value"));
+    }
+
+    @Test
+    void should_clone_entries() {
+        SortedProperties properties = new SortedProperties();
+        properties.setProperty("a", "1");
+
+        Properties clone = (Properties) properties.clone();
+        clone.setProperty("b", "2");
+
+        assertThat(clone).isInstanceOf(SortedProperties.class).containsEntry("a", "1").containsEntry("b", "2");
+        assertThat(properties).doesNotContainKey("b");
+    }
+
+    @Test
+    void should_serialize_entries() throws Exception {
+        SortedProperties properties = new SortedProperties();
+        properties.setProperty("b", "2");
+        properties.setProperty("a", "1");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(properties);
+        }
+
+        Object read;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            read = in.readObject();
+        }
+
+        assertThat(read).isInstanceOf(SortedProperties.class).isEqualTo(properties);
+        assertThat(((Properties) read).keySet()).containsExactly("a", "b");
+    }
+
+    @Test
+    void should_keep_the_serialized_form_of_previous_versions() throws Exception {
+        // A SortedProperties holding b=2 and a=1, serialized by a version storing them in the table of Properties
+        byte[] previous = Base64.getDecoder().decode("rO0ABXNyACFpby5mYWJyaWM4Lm1hdmVuLlNvcnRlZFByb3BlcnRpZXMAAAAAAAAAAQ"
+                + "IAAHhyABRqYXZhLnV0aWwuUHJvcGVydGllczkS0HpwNj6YAgABTAAIZGVmYXVsdHN0ABZMamF2YS91dGlsL1Byb3BlcnRpZXM7eHIAE2"
+                + "phdmEudXRpbC5IYXNodGFibGUTuw8lIUrkuAMAAkYACmxvYWRGYWN0b3JJAAl0aHJlc2hvbGR4cD9AAAAAAAADdwgAAAAFAAAAAnQAAW"
+                + "J0AAEydAABYXQAATF4cA==");
+        Object read;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(previous))) {
+            read = in.readObject();
+        }
+        assertThat(read).isInstanceOf(SortedProperties.class);
+        assertThat(((Properties) read).keySet()).containsExactly("a", "b");
+        assertThat(((Properties) read).getProperty("b")).isEqualTo("2");
+
+        SortedProperties properties = new SortedProperties();
+        properties.setProperty("b", "2");
+        properties.setProperty("a", "1");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(properties);
+        }
+        assertThat(bytes.toByteArray()).isEqualTo(previous);
+    }
+
+    @Test
+    void should_serialize_a_model() throws Exception {
+        Model model = new Model();
+        model.setArtifactId("my-app");
+        SortedProperties properties = new SortedProperties();
+        properties.setProperty("b", "2");
+        properties.setProperty("a", "1");
+        model.setProperties(properties);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(model);
+        }
+
+        Model read;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            read = (Model) in.readObject();
+        }
+
+        assertThat(read.getArtifactId()).isEqualTo("my-app");
+        assertThat(read.getProperties()).isInstanceOf(SortedProperties.class).isEqualTo(properties);
+        assertThat(read.getProperties().keySet()).containsExactly("a", "b");
+        read.getProperties().setProperty("c", "3");
+        assertThat(read.getProperties().keySet()).containsExactly("a", "b", "c");
+    }
+}
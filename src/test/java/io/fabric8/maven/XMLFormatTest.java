@@ -1,6 +1,7 @@
 package io.fabric8.maven;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatRuntimeException;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -8,6 +9,11 @@ import java.io.StringReader;
 import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.approvaltests.Approvals;
 import org.junit.jupiter.api.DisplayNameGeneration;
@@ -34,6 +40,64 @@ class XMLFormatTest {
         Approvals.verify(result);
     }
 
+    @Test
+    public void should_reuse_outputter() {
+        XMLFormat xmlFormat = XMLFormat.builder().indent("    ").build();
+        assertThat(xmlFormat.createXmlOutputter()).isSameAs(xmlFormat.createXmlOutputter());
+    }
+
+    @Test
+    public void should_reuse_line_break_outputter() {
+        XMLFormat xmlFormat = XMLFormat.builder().insertLineBreakBetweenMajorSections().build();
+        assertThat(xmlFormat.createXmlOutputter()).isSameAs(xmlFormat.createXmlOutputter());
+    }
+
+    @Test
+    public void should_format_after_parse_failure() {
+        XMLFormat xmlFormat = XMLFormat.builder().indent("    ").build();
+        String expected = xmlFormat.format(new StringReader("<root><child/></root>"));
+        assertThatRuntimeException().isThrownBy(() -> xmlFormat.format(new StringReader("<root><child></root>")));
+        assertThat(xmlFormat.format(new StringReader("<root><child/></root>"))).isEqualTo(expected);
+    }
+
+    @Test
+    public void should_format_concurrently() throws Exception {
+        XMLFormat xmlFormat = XMLFormat.builder().indent("    ").build();
+        String expected = xmlFormat.format(new StringReader("<root><child>text</child></root>"));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(() -> xmlFormat.format(new StringReader("<root><child>text</child></root>"))));
+            }
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo(expected);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void should_format_with_line_breaks_concurrently() throws Exception {
+        XMLFormat xmlFormat = XMLFormat.builder().indent("    ").insertLineBreakBetweenMajorSections().build();
+        String xml = "<root><a>1</a><b><c/></b><d>2</d><e><f/></e></root>";
+        String expected = xmlFormat.format(new StringReader(xml));
+        assertThat(expected).contains("<a>1</a>\n\n    <b>", "<d>2</d>\n\n    <e>");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(() -> xmlFormat.format(new StringReader(xml))));
+            }
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo(expected);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void find_indentation_should_return_4_blanks() throws Exception {
         URL resource = getClass().getResource("spaces-pom.xml");
@@ -0,0 +1,262 @@
+package io.fabric8.maven.cmd;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.maven.model.Model;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.fabric8.maven.Maven;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class DaemonTest {
+
+    @Test
+    void should_answer_each_command(@TempDir Path tempDir) throws Exception {
+        Path pom = tempDir.resolve("my project/pom.xml");
+        Files.createDirectories(pom.getParent());
+        Maven.writeModel(new Model(), pom);
+        Path broken = Files.writeString(Files.createDirectories(tempDir.resolve("broken")).resolve("pom.xml"),
+                "<project>");
+        StringWriter out = new StringWriter();
+
+        boolean shutdown = Daemon.serve(new BufferedReader(new StringReader(
+                "update-metadata\t" + pom + "\tmy name\tmy description\n"
+                        + "\n"
+                        + "update-gav " + broken.getParent() + " org.acme my-app 1.0\n"
+                        + "update-gav " + broken + "\n"
+                        + "serve\n"
+                        + "shutdown\n"
+                        + "update-gav " + pom + " org.acme my-app 1.0\n")),
+                new PrintWriter(out));
+
+        assertThat(shutdown).isTrue();
+        assertThat(out.toString().split("\\R")).containsExactly(
+                "OK",
+                "FAILED 1",
+                "ERROR java.lang.AssertionError: Insufficient arguments:2",
+                "ERROR Unknown command: serve",
+                "OK");
+        Model model = Maven.readModel(pom);
+        assertThat(model.getName()).isEqualTo("my name");
+        assertThat(model.getDescription()).isEqualTo("my description");
+        assertThat(model.getGroupId()).isNull();
+    }
+
+    @Test
+    void should_merge_with_source_dominant_per_command(@TempDir Path tempDir) throws Exception {
+        Path source = tempDir.resolve("source/pom.xml");
+        Files.createDirectories(source.getParent());
+        Model sourceModel = Maven.newModel();
+        sourceModel.setName("source");
+        Maven.writeModel(sourceModel, source);
+        Path first = tempDir.resolve("first/pom.xml");
+        Path second = tempDir.resolve("second/pom.xml");
+        for (Path pom : new Path[] { first, second }) {
+            Files.createDirectories(pom.getParent());
+            Model model = Maven.newModel();
+            model.setName("target");
+            Maven.writeModel(model, pom);
+        }
+        StringWriter out = new StringWriter();
+
+        Daemon.serve(new BufferedReader(new StringReader(
+                "merge " + first + " " + source + "\n"
+                        + "merge " + second + " " + source + " --source-dominant\n")),
+                new PrintWriter(out));
+
+        assertThat(out.toString().split("\\R")).containsExactly("OK", "OK");
+        assertThat(Maven.readModel(first).getName()).isEqualTo("target");
+        assertThat(Maven.readModel(second).getName()).isEqualTo("source");
+    }
+
+    @Test
+    void should_resolve_relative_paths_against_the_directory(@TempDir Path tempDir) throws Exception {
+        Path pom = tempDir.resolve("module/pom.xml");
+        Files.createDirectories(pom.getParent());
+        Maven.writeModel(new Model(), pom);
+        StringWriter out = new StringWriter();
+
+        Daemon.serve(new BufferedReader(new StringReader(
+                "cd module\n"
+                        + "cd " + tempDir + "\n"
+                        + "update-gav module/pom.xml org.acme my-app 1.0\n"
+                        + "cd\t" + pom.getParent() + "\n"
+                        + "update-metadata pom.xml my-name my-description\n")),
+                new PrintWriter(out));
+
+        assertThat(out.toString().split("\\R")).containsExactly(
+                "ERROR Not an absolute directory: module",
+                "OK",
+                "OK",
+                "OK",
+                "OK");
+        Model model = Maven.readModel(pom);
+        assertThat(model.getArtifactId()).isEqualTo("my-app");
+        assertThat(model.getName()).isEqualTo("my-name");
+    }
+
+    @Test
+    void should_serve_connections_with_the_token_until_shutdown(@TempDir Path tempDir) throws Exception {
+        Path pom = tempDir.resolve("pom.xml");
+        Maven.writeModel(new Model(), pom);
+        String token = Daemon.newToken();
+        ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        CompletableFuture<Void> daemon = listen(server, token);
+
+        assertThat(send(server.getLocalPort(), "invalid", "shutdown")).isEqualTo("ERROR Invalid token");
+        assertThat(send(server.getLocalPort(), "update-gav " + pom + " org.acme my-app 1.0"))
+                .isEqualTo("ERROR Invalid token");
+        assertThat(send(server.getLocalPort(), "x".repeat(1000))).isEqualTo("ERROR Invalid token");
+        assertThat(send(server.getLocalPort(), token, "update-gav " + pom + " org.acme my-app 1.0")).isEqualTo("OK");
+        assertThat(send(server.getLocalPort(), token, "shutdown")).isEqualTo("OK");
+
+        daemon.get(10, TimeUnit.SECONDS);
+        assertThat(server.isClosed()).isTrue();
+        assertThat(Maven.readModel(pom).getArtifactId()).isEqualTo("my-app");
+    }
+
+    @Test
+    void should_finish_the_commands_in_progress_on_shutdown(@TempDir Path tempDir) throws Exception {
+        assumeTrue(Files.isExecutable(Paths.get("/usr/bin/mkfifo")));
+        // Reading the POM file blocks the command until the test writes it
+        Path pom = tempDir.resolve("pom.xml");
+        assertThat(new ProcessBuilder("/usr/bin/mkfifo", pom.toString()).start().waitFor()).isZero();
+        String token = Daemon.newToken();
+        ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        CompletableFuture<Void> daemon = listen(server, token);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> {
+            try {
+                return send(server.getLocalPort(), token, "update-gav " + pom + " org.acme my-app 1.0");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        try (Socket idle = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+                PrintWriter idleOut = new PrintWriter(idle.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            idleOut.println(token);
+            // Opening the POM file for writing waits until the command opened it for reading
+            try (OutputStream contents = Files.newOutputStream(pom)) {
+                assertThat(send(server.getLocalPort(), token, "shutdown")).isEqualTo("OK");
+                assertThatThrownBy(() -> daemon.get(500, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+                assertThat(running).isNotDone();
+                contents.write(("<project>\n  <modelVersion>4.0.0</modelVersion>\n</project>\n")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+
+            assertThat(running.get(10, TimeUnit.SECONDS)).isEqualTo("OK");
+            daemon.get(10, TimeUnit.SECONDS);
+            // The idle connection was ended without waiting for its next command
+            idle.setSoTimeout(10_000);
+            assertThat(idle.getInputStream().read()).isEqualTo(-1);
+        }
+        assertThat(Maven.readModel(pom).getArtifactId()).isEqualTo("my-app");
+    }
+
+    @Test
+    void should_read_the_token_up_to_its_maximum_length() throws Exception {
+        assertThat(Daemon.readToken(new BufferedReader(new StringReader("token\r\nshutdown\n")))).isEqualTo("token");
+        assertThat(Daemon.readToken(new BufferedReader(new StringReader("token")))).isNull();
+        assertThat(Daemon.readToken(new BufferedReader(new StringReader("\n")))).isEmpty();
+        assertThat(Daemon.readToken(new BufferedReader(new StringReader("x".repeat(1000) + "\n"))))
+                .hasSize(Daemon.MAX_TOKEN_LENGTH);
+    }
+
+    @Test
+    void should_write_the_token_for_the_owner_only(@TempDir Path tempDir) throws Exception {
+        assumeTrue(tempDir.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Path tokenFile = tempDir.resolve("mmh/daemon.token");
+
+        Daemon.writeToken(tokenFile, "secret");
+
+        assertThat(tokenFile).hasContent("secret");
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile))).isEqualTo("rw-------");
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile.getParent())))
+                .isEqualTo("rwx------");
+    }
+
+    @Test
+    void should_resolve_the_paths_of_the_client_against_its_working_directory(@TempDir Path tempDir)
+            throws Exception {
+        Path client = Paths.get("src/main/scripts/mmh-client").toAbsolutePath();
+        assumeTrue(Files.isExecutable(Paths.get("/bin/bash")));
+        Path clientDirectory = Files.createDirectories(tempDir.resolve("client"));
+        Path pom = clientDirectory.resolve("pom.xml");
+        Maven.writeModel(new Model(), pom);
+        assertThat(clientDirectory).isNotEqualTo(Paths.get("").toAbsolutePath());
+        Path tokenFile = tempDir.resolve("daemon.token");
+        String token = Daemon.newToken();
+        Daemon.writeToken(tokenFile, token);
+        ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        CompletableFuture<Void> daemon = listen(server, token);
+
+        ProcessBuilder builder = new ProcessBuilder("/bin/bash", client.toString(), "update-gav", "pom.xml", "org.acme",
+                "my-app", "1.0")
+                .directory(clientDirectory.toFile())
+                .redirectErrorStream(true);
+        builder.environment().put("MMH_PORT", String.valueOf(server.getLocalPort()));
+        builder.environment().put("MMH_TOKEN_FILE", tokenFile.toString());
+        Process process = builder.start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+
+        assertThat(process.waitFor(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(process.exitValue()).as(output).isZero();
+        assertThat(Maven.readModel(pom).getArtifactId()).isEqualTo("my-app");
+        assertThat(send(server.getLocalPort(), token, "shutdown")).isEqualTo("OK");
+        daemon.get(10, TimeUnit.SECONDS);
+    }
+
+    private static CompletableFuture<Void> listen(ServerSocket server, String token) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                Daemon.listen(server, token);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    /**
+     * @return the last answer to the lines
+     */
+    private static String send(int port, String... lines) throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line : lines) {
+                out.println(line);
+            }
+            socket.shutdownOutput();
+            String answer = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                answer = line;
+            }
+            return answer;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.fabric8.maven.cmd;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import io.fabric8.maven.Maven;
+import io.fabric8.maven.merge.SmartModelMerger;
 
 /**
  * @author <a href="mailto:ggastald@redhat.com">George Gastaldi</a>
@@ -63,4 +65,68 @@ class MainTest {
         assertThat(model.getName()).isEqualTo("my-name");
         assertThat(model.getDescription()).isEqualTo("my-description");
     }
+
+    @Test
+    void should_change_project_metadata_in_directory(@TempDir Path tempDir) throws Exception {
+        Path first = writePom(tempDir.resolve("first/pom.xml"));
+        Path second = writePom(tempDir.resolve("first/second/pom.xml"));
+        Path ignored = writePom(tempDir.resolve("first/target/pom.xml"));
+        Path broken = Files.writeString(Files.createDirectories(tempDir.resolve("broken")).resolve("pom.xml"), "<project>");
+
+        int failures = Main.run("update-metadata", tempDir.toString(), "my-name", "my-description", "--jobs", "2");
+
+        assertThat(failures).isEqualTo(1);
+        assertThat(Maven.readModel(first).getName()).isEqualTo("my-name");
+        assertThat(Maven.readModel(second).getDescription()).isEqualTo("my-description");
+        assertThat(Maven.readModel(ignored).getName()).isNull();
+        assertThat(broken).hasContent("<project>");
+    }
+
+    @Test
+    void should_change_project_gav_matching_glob(@TempDir Path tempDir) throws Exception {
+        Path first = writePom(tempDir.resolve("first/pom.xml"));
+        Path second = writePom(tempDir.resolve("second/pom.xml"));
+        Path root = writePom(tempDir.resolve("pom.xml"));
+
+        int failures = Main.run("update-gav", tempDir.toString() + "/*/pom.xml", "org.example", "example", "1.0",
+                "--jobs=4");
+
+        assertThat(failures).isZero();
+        assertThat(Maven.readModel(first).getGroupId()).isEqualTo("org.example");
+        assertThat(Maven.readModel(second).getVersion()).isEqualTo("1.0");
+        assertThat(Maven.readModel(root).getGroupId()).isNull();
+    }
+
+    @Test
+    void should_reject_invalid_number_of_jobs(@TempDir Path tempDir) {
+        assertThatThrownBy(() -> Main.run("update-metadata", tempDir.toString(), "my-name", "my-description", "--jobs",
+                "abc")).isInstanceOf(AssertionError.class).hasMessage("Invalid number of jobs:abc");
+        assertThatThrownBy(() -> Main.run("update-metadata", tempDir.toString(), "my-name", "my-description",
+                "--jobs=0")).isInstanceOf(AssertionError.class).hasMessage("Invalid number of jobs:0");
+    }
+
+    @Test
+    void should_merge_into_every_pom_in_directory(@TempDir Path tempDir) throws Exception {
+        Path source = Paths.get(getClass().getResource("properties/source-pom.xml").toURI());
+        Path first = tempDir.resolve("first/pom.xml");
+        Path second = tempDir.resolve("second/pom.xml");
+        Path target = Paths.get(getClass().getResource("properties/target-pom.xml").toURI());
+        Files.copy(target, Files.createDirectories(first.getParent()).resolve("pom.xml"));
+        Files.copy(target, Files.createDirectories(second.getParent()).resolve("pom.xml"));
+
+        assertThat(Main.run("merge", tempDir.toString(), source.toString())).isZero();
+
+        Model expected = Maven.readModel(target);
+        new SmartModelMerger().merge(expected, Maven.readModel(source), false, null);
+        assertThat(Maven.readModel(first).getProperties()).isEqualTo(expected.getProperties());
+        assertThat(Files.readString(first)).isEqualTo(Files.readString(second));
+    }
+
+    private static Path writePom(Path pom) throws Exception {
+        Files.createDirectories(pom.getParent());
+        Model model = Maven.newModel();
+        model.setArtifactId(pom.getParent().getFileName().toString());
+        Maven.writeModel(model, pom);
+        return pom;
+    }
 }
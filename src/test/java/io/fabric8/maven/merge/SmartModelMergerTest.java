@@ -1,6 +1,7 @@
 package io.fabric8.maven.merge;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 import java.io.StringReader;
 import java.io.StringWriter;
@@ -8,15 +9,24 @@ import java.net.URISyntaxException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
+import org.apache.maven.model.Build;
 import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
 import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginManagement;
 import org.apache.maven.model.Profile;
 import org.apache.maven.model.merge.ModelMerger;
 import org.approvaltests.Approvals;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import io.fabric8.maven.Maven;
+import io.fabric8.maven.ReadOptions;
 
 /**
  * @author <a href="mailto:ggastald@redhat.com">George Gastaldi</a>
@@ -46,6 +56,97 @@ class SmartModelMergerTest {
         assertThat(target.getDependencies()).contains(dependency);
     }
 
+    @Test
+    void should_merge_dependencies_by_coordinates() {
+        ModelMerger merger = new SmartModelMerger();
+        Model source = new Model();
+        source.addDependency(dependency("foo", "bar", "2.0"));
+        source.addDependency(dependency("foo", "qux", "2.0"));
+        source.setDependencyManagement(new DependencyManagement());
+        source.getDependencyManagement().addDependency(dependency("foo", "bar", "2.0"));
+
+        Model target = new Model();
+        target.addDependency(dependency("foo", "baz", "1.0"));
+        target.addDependency(dependency("foo", "bar", "1.0"));
+        target.setDependencyManagement(new DependencyManagement());
+        target.getDependencyManagement().addDependency(dependency("foo", "bar", "1.0"));
+
+        merger.merge(target, source, true, null);
+
+        assertThat(target.getDependencies()).extracting(Dependency::getManagementKey, Dependency::getVersion)
+                .containsExactly(tuple("foo:baz:jar", "1.0"), tuple("foo:bar:jar", "2.0"), tuple("foo:qux:jar", "2.0"));
+        assertThat(target.getDependencyManagement().getDependencies()).extracting(Dependency::getVersion)
+                .containsExactly("2.0");
+    }
+
+    @Test
+    void should_merge_plugins_by_coordinates() {
+        ModelMerger merger = new SmartModelMerger();
+        Model source = new Model();
+        source.setBuild(new Build());
+        source.getBuild().addPlugin(plugin("maven-compiler-plugin", "3.13.0"));
+        source.getBuild().setPluginManagement(new PluginManagement());
+        source.getBuild().getPluginManagement().addPlugin(plugin("maven-surefire-plugin", "3.5.0"));
+
+        Model target = new Model();
+        target.setBuild(new Build());
+        target.getBuild().addPlugin(plugin("maven-compiler-plugin", "3.8.1"));
+        target.getBuild().addPlugin(plugin("maven-jar-plugin", "3.4.2"));
+        target.getBuild().setPluginManagement(new PluginManagement());
+        target.getBuild().getPluginManagement().addPlugin(plugin("maven-surefire-plugin", "2.22.2"));
+
+        merger.merge(target, source, false, null);
+
+        assertThat(target.getBuild().getPlugins()).extracting(Plugin::getArtifactId, Plugin::getVersion)
+                .containsExactly(tuple("maven-compiler-plugin", "3.8.1"), tuple("maven-jar-plugin", "3.4.2"));
+        assertThat(target.getBuild().getPluginManagement().getPlugins()).extracting(Plugin::getVersion)
+                .containsExactly("2.22.2");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    void should_merge_all_sources_at_once_as_one_after_the_other(boolean sourceDominant) throws Exception {
+        Path target = Paths.get(getClass().getResource("fragments/target-pom.xml").toURI());
+        List<Path> sources = Arrays.asList(
+                Paths.get(getClass().getResource("fragments/fragment-1.xml").toURI()),
+                Paths.get(getClass().getResource("fragments/fragment-2.xml").toURI()),
+                Paths.get(getClass().getResource("fragments/fragment-3.xml").toURI()));
+        SmartModelMerger merger = new SmartModelMerger();
+        Model expected = Maven.readModel(target);
+        for (Path source : sources) {
+            merger.merge(expected, Maven.readModel(source), sourceDominant, null);
+        }
+
+        Model merged = Maven.readModel(target);
+        merger.merge(merged, sources.stream().map(Maven::readModel).collect(Collectors.toList()), sourceDominant,
+                null);
+
+        StringWriter expectedWriter = new StringWriter();
+        Maven.writeModel(expected, expectedWriter);
+        StringWriter writer = new StringWriter();
+        Maven.writeModel(merged, writer);
+        assertThat(writer.toString()).isEqualTo(expectedWriter.toString());
+        // InputLocation has no equals, its string lists the line and column
+        assertThat(merged.getLocation("properties").getLocations())
+                .hasToString(expected.getLocation("properties").getLocations().toString());
+        assertThat(merged.getProfiles().get(0).getProperties()).isEqualTo(expected.getProfiles().get(0).getProperties());
+    }
+
+    private static Dependency dependency(String groupId, String artifactId, String version) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId(groupId);
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion(version);
+        return dependency;
+    }
+
+    private static Plugin plugin(String artifactId, String version) {
+        Plugin plugin = new Plugin();
+        plugin.setArtifactId(artifactId);
+        plugin.setVersion(version);
+        return plugin;
+    }
+
     @Test
     public void should_copy_profiles() {
         ModelMerger merger = new SmartModelMerger();
@@ -173,6 +274,33 @@ class SmartModelMergerTest {
         Approvals.verify(writer.toString());
     }
 
+    @Test
+    void should_preserve_packaging_without_locations() {
+        String basePom = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<project>\n" +
+                "    <modelVersion>4.0.0</modelVersion>\n" +
+                "    <groupId>org.acme</groupId>\n" +
+                "    <artifactId>my-app</artifactId>\n" +
+                "    <version>1.0.0-SNAPSHOT</version>\n" +
+                "    <packaging>quarkus</packaging>\n" +
+                "</project>\n";
+
+        String extensionPom = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<project>\n" +
+                "    <properties>\n" +
+                "        <property-from-extension>value</property-from-extension>\n" +
+                "    </properties>\n" +
+                "</project>\n";
+
+        ReadOptions options = ReadOptions.builder().trackLocations(false).build();
+        ModelMerger merger = new SmartModelMerger();
+        final Model source = Maven.readModel(new StringReader(basePom), options);
+        final Model target = Maven.readModel(new StringReader(extensionPom), options);
+        merger.merge(target, source, true, null);
+        assertThat(target.getPackaging()).isEqualTo("quarkus");
+        assertThat(target.getProperties()).containsEntry("property-from-extension", "value");
+    }
+
     @Test
     void should_preserve_packaging_in_target_if_explicitly_set() {
         String basePom = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +